@@ -1,16 +1,23 @@
 package com.mystic.holographicrenders;
 
 import com.mystic.holographicrenders.blocks.projector.ItemProjectionHandler;
+import com.mystic.holographicrenders.blocks.projector.PayloadStore;
+import com.mystic.holographicrenders.blocks.projector.ProjectorTracker;
 import com.mystic.holographicrenders.blocks.projector.ProjectorBlock;
 import com.mystic.holographicrenders.blocks.projector.ProjectorBlockEntity;
+import com.mystic.holographicrenders.client.RenderDataProvider;
 import com.mystic.holographicrenders.gui.ProjectorScreenHandler;
 import com.mystic.holographicrenders.item.AreaScannerItem;
 import com.mystic.holographicrenders.item.EntityScannerItem;
 import com.mystic.holographicrenders.item.TextureScannerItem;
+import com.mystic.holographicrenders.network.AreaDeltaPacket;
+import com.mystic.holographicrenders.network.PayloadPacket;
 import com.mystic.holographicrenders.network.ProjectorScreenPacket;
+import com.mystic.holographicrenders.network.ProjectorStatePacket;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.client.itemgroup.FabricItemGroupBuilder;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
 import net.fabricmc.fabric.api.screenhandler.v1.ScreenHandlerRegistry;
 import net.minecraft.block.Block;
@@ -52,6 +59,8 @@ public class HolographicRenders implements ModInitializer {
 
     @Override
     public void onInitialize() {
+        HolographicRendersConfig.load();
+        RenderDataProvider.registerDefaultProviders();
 
         Registry.register(Registry.BLOCK, PROJECTOR_ID, PROJECTOR_BLOCK);
         Registry.register(Registry.ITEM, PROJECTOR_ID, PROJECTOR_ITEM);
@@ -62,6 +71,11 @@ public class HolographicRenders implements ModInitializer {
         Registry.register(Registry.ITEM, new Identifier(MOD_ID, "entity_scanner"), ENTITY_SCANNER);
 
         ServerPlayNetworking.registerGlobalReceiver(ProjectorScreenPacket.ACTION_REQUEST_ID, ProjectorScreenPacket::onActionRequest);
+        ServerPlayNetworking.registerGlobalReceiver(AreaDeltaPacket.RESYNC_ID, AreaDeltaPacket::onResyncRequest);
+        ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> sender.sendPacket(ProjectorStatePacket.createProviderIds()));
+        ProjectorTracker.register();
+        PayloadStore.register();
+        ServerPlayNetworking.registerGlobalReceiver(PayloadPacket.REQUEST_ID, PayloadPacket::onRequest);
         ServerPlayNetworking.registerGlobalReceiver(new Identifier(HolographicRenders.MOD_ID, "url_packet"), (server, player, handler, buf, responseSender) -> {
             String url = buf.readString(2000);
             Hand hand = buf.readEnumConstant(Hand.class);
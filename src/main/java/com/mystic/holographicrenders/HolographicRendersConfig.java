@@ -0,0 +1,194 @@
+package com.mystic.holographicrenders;
+
+import net.fabricmc.loader.api.FabricLoader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Simple properties based configuration, stored in {@code config/holographic_renders.properties}.
+ * Missing values are filled in with their defaults and written back on load
+ */
+public class HolographicRendersConfig {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * The maximum size of the on-disk texture cache, in bytes
+     */
+    public static long textureDiskCacheSize = 128L * 1024 * 1024;
+
+    /**
+     * The maximum width and height of hologram textures, larger images are downscaled
+     */
+    public static int textureMaxSize = 2048;
+
+    /**
+     * Whether mipmaps should be generated for hologram textures
+     */
+    public static boolean textureMipmaps = false;
+
+    /**
+     * The amount of texture memory hologram textures may use before unused ones are deleted, in bytes
+     */
+    public static long textureVramBudget = 256L * 1024 * 1024;
+
+    /**
+     * The amount of vertex memory area hologram meshes may use before the least recently drawn ones are freed, in bytes
+     */
+    public static long areaMeshBudget = 128L * 1024 * 1024;
+
+    /**
+     * The number of threads used to mesh area holograms, {@code 0} uses one less than the number of available cores
+     */
+    public static int areaMeshThreads = 0;
+
+    /**
+     * The maximum number of area hologram sections meshed at the same time, {@code 0} uses the number of mesher threads
+     */
+    public static int areaMaxConcurrentBuilds = 0;
+
+    /**
+     * The time spent uploading meshed area hologram sections each frame, in milliseconds. At least one
+     * section is uploaded per frame
+     */
+    public static double areaUploadBudget = 2;
+
+    /**
+     * The largest area, in blocks, the server copies into a snapshot when an area scanner is inserted into a projector.
+     * Larger areas are meshed from the blocks the client has loaded
+     */
+    public static long areaSnapshotMaxVolume = 64 * 64 * 64;
+
+    /**
+     * The minimum number of ticks between two block change updates sent for a live area hologram
+     */
+    public static int areaLiveUpdateInterval = 4;
+
+    /**
+     * The maximum size of the on-disk cache of built area hologram meshes, in bytes. {@code 0} disables the cache
+     */
+    public static long areaMeshDiskCacheSize = 256L * 1024 * 1024;
+
+    /**
+     * Whether to benchmark area meshing once after joining a world. The blocks around the player are meshed
+     * at several area sizes and mesher thread counts and the times are written to the log
+     */
+    public static boolean areaMeshBenchmark = false;
+
+    /**
+     * Logs the size of every projector state sync next to the size the same state would have as NBT
+     */
+    public static boolean logSyncSizes = false;
+
+    /**
+     * Projector payloads like captured entities and area snapshots at least this large, in bytes, are kept in the
+     * per-world payload store and referenced by hash, so identical payloads are saved and sent only once
+     */
+    public static long payloadMinSize = 1024;
+
+    /**
+     * Clients load the stored payloads of projectors closer to the camera than this, in blocks,
+     * and drop them again once they are a quarter further away
+     */
+    public static double hologramViewDistance = 64;
+
+    /**
+     * Whether entity scanners keep only the NBT that changes how the captured entity renders
+     */
+    public static boolean slimEntityNbt = true;
+
+    /**
+     * Whether entities of other mods that do not register their render relevant keys are slimmed too. They keep
+     * only the keys shared by all entities, disable this if modded entities lose their appearance when captured
+     */
+    public static boolean slimModdedEntityNbt = true;
+
+    /**
+     * Projectors closer to the camera than this, in blocks, render their hologram in full detail.
+     * {@code 0} uses three quarters of the distance block entities are rendered at
+     */
+    public static double lodNearDistance = 0;
+
+    /**
+     * Projectors closer to the camera than this, in blocks, render a reduced hologram.
+     * Projectors further away only draw their light cone. {@code 0} uses nine tenths of the distance block entities are rendered at
+     */
+    public static double lodMidDistance = 0;
+
+    /**
+     * Projectors further away from the camera than this, in blocks, are not rendered at all.
+     * {@code 0} uses the distance block entities are rendered at
+     */
+    public static double lodCutoffDistance = 0;
+
+    public static void load() {
+        final Path configPath = FabricLoader.getInstance().getConfigDir().resolve(HolographicRenders.MOD_ID + ".properties");
+        final Properties properties = new Properties();
+
+        if (Files.exists(configPath)) {
+            try (Reader reader = Files.newBufferedReader(configPath)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                LOGGER.warn("Could not read config file {}, using defaults", configPath, e);
+            }
+        }
+
+        textureDiskCacheSize = getLong(properties, "textureDiskCacheSize", textureDiskCacheSize);
+        textureMaxSize = (int) getLong(properties, "textureMaxSize", textureMaxSize);
+        textureMipmaps = getBoolean(properties, "textureMipmaps", textureMipmaps);
+        textureVramBudget = getLong(properties, "textureVramBudget", textureVramBudget);
+        areaMeshBudget = getLong(properties, "areaMeshBudget", areaMeshBudget);
+        areaMeshThreads = (int) getLong(properties, "areaMeshThreads", areaMeshThreads);
+        areaMaxConcurrentBuilds = (int) getLong(properties, "areaMaxConcurrentBuilds", areaMaxConcurrentBuilds);
+        areaUploadBudget = getDouble(properties, "areaUploadBudget", areaUploadBudget);
+        areaSnapshotMaxVolume = getLong(properties, "areaSnapshotMaxVolume", areaSnapshotMaxVolume);
+        areaLiveUpdateInterval = (int) getLong(properties, "areaLiveUpdateInterval", areaLiveUpdateInterval);
+        areaMeshDiskCacheSize = getLong(properties, "areaMeshDiskCacheSize", areaMeshDiskCacheSize);
+        areaMeshBenchmark = getBoolean(properties, "areaMeshBenchmark", areaMeshBenchmark);
+        logSyncSizes = getBoolean(properties, "logSyncSizes", logSyncSizes);
+        payloadMinSize = getLong(properties, "payloadMinSize", payloadMinSize);
+        hologramViewDistance = getDouble(properties, "hologramViewDistance", hologramViewDistance);
+        slimEntityNbt = getBoolean(properties, "slimEntityNbt", slimEntityNbt);
+        slimModdedEntityNbt = getBoolean(properties, "slimModdedEntityNbt", slimModdedEntityNbt);
+        lodNearDistance = getDouble(properties, "lodNearDistance", lodNearDistance);
+        lodMidDistance = getDouble(properties, "lodMidDistance", lodMidDistance);
+        lodCutoffDistance = getDouble(properties, "lodCutoffDistance", lodCutoffDistance);
+
+        try (Writer writer = Files.newBufferedWriter(configPath)) {
+            properties.store(writer, "Holographic Renders configuration");
+        } catch (IOException e) {
+            LOGGER.warn("Could not write config file {}", configPath, e);
+        }
+    }
+
+    private static long getLong(Properties properties, String key, long defaultValue) {
+        long value = defaultValue;
+        try {
+            value = Long.parseLong(properties.getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException ignored) {}
+        properties.setProperty(key, String.valueOf(value));
+        return value;
+    }
+
+    private static double getDouble(Properties properties, String key, double defaultValue) {
+        double value = defaultValue;
+        try {
+            value = Double.parseDouble(properties.getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException ignored) {}
+        properties.setProperty(key, String.valueOf(value));
+        return value;
+    }
+
+    private static boolean getBoolean(Properties properties, String key, boolean defaultValue) {
+        final boolean value = Boolean.parseBoolean(properties.getProperty(key, String.valueOf(defaultValue)).trim());
+        properties.setProperty(key, String.valueOf(value));
+        return value;
+    }
+}
@@ -0,0 +1,463 @@
+package com.mystic.holographicrenders.blocks.projector;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.util.NbtType;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtHelper;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.collection.PackedIntegerArray;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable copy of the block states inside a scanned area, captured on the server when an area scanner
+ * is inserted into a projector. Like chunk sections, the states are stored as a palette of the distinct
+ * states and one bit-packed palette index per block, which keeps the snapshot small on disk and on the wire
+ * <p>
+ * Blocks are indexed x first, then z, then y, starting at the minimum corner of the area
+ * <p>
+ * Live projectors keep their snapshot up to date through {@link Delta}s. Every applied delta creates a new
+ * snapshot with the same id and the next version, so a delta can only be applied to the version it was made for
+ */
+public class AreaSnapshot {
+
+    private final long id;
+    private final int version;
+
+    private final BlockPos min;
+    private final BlockPos max;
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+
+    private final List<BlockState> palette;
+    private final PackedIntegerArray data;
+
+    private AreaSnapshot(long id, int version, BlockPos min, BlockPos max, List<BlockState> palette, PackedIntegerArray data) {
+        this.id = id;
+        this.version = version;
+        this.min = min;
+        this.max = max;
+        this.sizeX = max.getX() - min.getX() + 1;
+        this.sizeY = max.getY() - min.getY() + 1;
+        this.sizeZ = max.getZ() - min.getZ() + 1;
+        this.palette = palette;
+        this.data = data;
+    }
+
+    /**
+     * Copies the blocks between the given corners out of the world. Blocks are read straight from the
+     * chunk sections, empty sections are skipped. Chunks are never loaded for this, areas that are not
+     * fully loaded are refused
+     *
+     * @param world The world to read from
+     * @param start One corner of the area
+     * @param end   The opposite corner of the area
+     * @return The snapshot of the area, or {@code null} if a chunk in the area is not loaded
+     */
+    public static @Nullable AreaSnapshot capture(World world, BlockPos start, BlockPos end) {
+        final BlockPos min = new BlockPos(Math.min(start.getX(), end.getX()), Math.min(start.getY(), end.getY()), Math.min(start.getZ(), end.getZ()));
+        final BlockPos max = new BlockPos(Math.max(start.getX(), end.getX()), Math.max(start.getY(), end.getY()), Math.max(start.getZ(), end.getZ()));
+        final int sizeX = max.getX() - min.getX() + 1;
+        final int sizeZ = max.getZ() - min.getZ() + 1;
+
+        final List<WorldChunk> chunks = new ArrayList<>();
+        for (int chunkX = min.getX() >> 4; chunkX <= max.getX() >> 4; chunkX++) {
+            for (int chunkZ = min.getZ() >> 4; chunkZ <= max.getZ() >> 4; chunkZ++) {
+                final WorldChunk chunk = world.getChunkManager().getWorldChunk(chunkX, chunkZ, false);
+                if (chunk == null) return null;
+                chunks.add(chunk);
+            }
+        }
+
+        final List<BlockState> palette = new ArrayList<>();
+        final Map<BlockState, Integer> paletteIndices = new IdentityHashMap<>();
+        final int[] indices = new int[getVolume(min, max)];
+
+        // Air is always index 0, so empty snapshots and blocks outside the area need no palette entry
+        palette.add(Blocks.AIR.getDefaultState());
+        paletteIndices.put(Blocks.AIR.getDefaultState(), 0);
+
+        for (WorldChunk chunk : chunks) {
+            final int chunkMinX = Math.max(min.getX(), chunk.getPos().getStartX()), chunkMaxX = Math.min(max.getX(), chunk.getPos().getEndX());
+            final int chunkMinZ = Math.max(min.getZ(), chunk.getPos().getStartZ()), chunkMaxZ = Math.min(max.getZ(), chunk.getPos().getEndZ());
+            final ChunkSection[] sections = chunk.getSectionArray();
+
+            for (int sectionY = Math.max(0, min.getY() >> 4); sectionY <= Math.min(sections.length - 1, max.getY() >> 4); sectionY++) {
+                final ChunkSection section = sections[sectionY];
+                if (ChunkSection.isEmpty(section)) continue;
+
+                final int sectionMinY = Math.max(min.getY(), sectionY << 4), sectionMaxY = Math.min(max.getY(), (sectionY << 4) + 15);
+                for (int y = sectionMinY; y <= sectionMaxY; y++) {
+                    for (int z = chunkMinZ; z <= chunkMaxZ; z++) {
+                        int index = ((y - min.getY()) * sizeZ + z - min.getZ()) * sizeX + chunkMinX - min.getX();
+                        for (int x = chunkMinX; x <= chunkMaxX; x++) {
+                            final BlockState state = section.getBlockState(x & 15, y & 15, z & 15);
+                            Integer paletteIndex = paletteIndices.get(state);
+                            if (paletteIndex == null) {
+                                paletteIndex = palette.size();
+                                palette.add(state);
+                                paletteIndices.put(state, paletteIndex);
+                            }
+                            indices[index++] = paletteIndex;
+                        }
+                    }
+                }
+            }
+        }
+
+        final PackedIntegerArray data = new PackedIntegerArray(getBits(palette.size()), indices.length);
+        for (int i = 0; i < indices.length; i++) {
+            data.set(i, indices[i]);
+        }
+
+        // The id is derived from the content, so identical captures share meshes on the client
+        long id = 31 * min.asLong() + max.asLong();
+        for (BlockState state : palette) id = 31 * id + Block.getRawIdFromState(state);
+        id = 31 * id + Arrays.hashCode(data.getStorage());
+
+        return new AreaSnapshot(id, 0, min, max, palette, data);
+    }
+
+    /**
+     * Reads a snapshot written by {@link #toNbt()}
+     *
+     * @param tag The tag to read from
+     * @return The snapshot, or {@code null} if the tag is malformed
+     */
+    public static @Nullable AreaSnapshot fromNbt(NbtCompound tag) {
+        final BlockPos min = BlockPos.fromLong(tag.getLong("Min"));
+        final BlockPos max = BlockPos.fromLong(tag.getLong("Max"));
+
+        final NbtList paletteTag = tag.getList("Palette", NbtType.COMPOUND);
+        if (paletteTag.isEmpty()) return null;
+
+        final List<BlockState> palette = new ArrayList<>(paletteTag.size());
+        for (int i = 0; i < paletteTag.size(); i++) {
+            palette.add(NbtHelper.toBlockState(paletteTag.getCompound(i)));
+        }
+
+        final int volume = getVolume(min, max);
+        final int bits = getBits(palette.size());
+        final long[] storage = tag.getLongArray("Data");
+
+        final int valuesPerLong = 64 / bits;
+        if (storage.length != (volume + valuesPerLong - 1) / valuesPerLong) return null;
+
+        return new AreaSnapshot(tag.getLong("Id"), tag.getInt("Version"), min, max, palette, new PackedIntegerArray(bits, volume, storage));
+    }
+
+    public NbtCompound toNbt() {
+        final NbtCompound tag = new NbtCompound();
+        tag.putLong("Id", id);
+        tag.putInt("Version", version);
+        tag.putLong("Min", min.asLong());
+        tag.putLong("Max", max.asLong());
+
+        final NbtList paletteTag = new NbtList();
+        for (BlockState state : palette) {
+            paletteTag.add(NbtHelper.fromBlockState(state));
+        }
+        tag.put("Palette", paletteTag);
+        tag.putLongArray("Data", data.getStorage());
+
+        return tag;
+    }
+
+    /**
+     * Gets the state of the given block, blocks outside of the area are air
+     *
+     * @param pos The position of the block, in world coordinates
+     * @return The state of the block when the snapshot was taken
+     */
+    public BlockState getBlockState(BlockPos pos) {
+        final int index = getIndex(pos);
+        if (index < 0) return Blocks.AIR.getDefaultState();
+
+        final int paletteIndex = data.get(index);
+        return paletteIndex < palette.size() ? palette.get(paletteIndex) : Blocks.AIR.getDefaultState();
+    }
+
+    /**
+     * @param pos A position in world coordinates
+     * @return The index of the given block in this snapshot, or {@code -1} if it is outside of the area
+     */
+    public int getIndex(BlockPos pos) {
+        final int x = pos.getX() - min.getX(), y = pos.getY() - min.getY(), z = pos.getZ() - min.getZ();
+        if (x < 0 || y < 0 || z < 0 || x >= sizeX || y >= sizeY || z >= sizeZ) return -1;
+        return (y * sizeZ + z) * sizeX + x;
+    }
+
+    /**
+     * @param index An index obtained from {@link #getIndex(BlockPos)}
+     * @return The world position of the block at that index
+     */
+    public BlockPos getPos(int index) {
+        return new BlockPos(min.getX() + index % sizeX, min.getY() + index / (sizeX * sizeZ), min.getZ() + index / sizeX % sizeZ);
+    }
+
+    /**
+     * Encodes the given changes against this version of the snapshot. States which are not in the palette
+     * yet are appended to it in the order they first appear
+     *
+     * @param changes The new states of the changed blocks, keyed by their index in this snapshot
+     * @return The delta, which can be applied to this snapshot on both sides
+     */
+    public Delta createDelta(Int2ObjectMap<BlockState> changes) {
+        final List<BlockState> newPalette = new ArrayList<>();
+        final Map<BlockState, Integer> paletteIndices = new IdentityHashMap<>();
+        for (int i = 0; i < palette.size(); i++) paletteIndices.putIfAbsent(palette.get(i), i);
+
+        final int[] indices = new int[changes.size()];
+        final int[] values = new int[changes.size()];
+
+        int i = 0;
+        for (Int2ObjectMap.Entry<BlockState> entry : changes.int2ObjectEntrySet()) {
+            Integer paletteIndex = paletteIndices.get(entry.getValue());
+            if (paletteIndex == null) {
+                paletteIndex = palette.size() + newPalette.size();
+                newPalette.add(entry.getValue());
+                paletteIndices.put(entry.getValue(), paletteIndex);
+            }
+
+            indices[i] = entry.getIntKey();
+            values[i] = paletteIndex;
+            i++;
+        }
+
+        return new Delta(id, version, newPalette, indices, values);
+    }
+
+    /**
+     * Applies a delta created by {@link #createDelta(Int2ObjectMap)}
+     *
+     * @param delta The delta to apply
+     * @return The next version of this snapshot, or {@code null} if the delta was made for a different version
+     */
+    public @Nullable AreaSnapshot apply(Delta delta) {
+        return apply(delta, version + 1);
+    }
+
+    /**
+     * Applies a delta that combines several versions worth of changes, like the changes saved
+     * on top of a stored snapshot
+     *
+     * @param delta       The delta to apply
+     * @param nextVersion The version of the resulting snapshot
+     * @return The resulting snapshot, or {@code null} if the delta was made for a different version
+     */
+    public @Nullable AreaSnapshot apply(Delta delta, int nextVersion) {
+        if (delta.id != id || delta.baseVersion != version) return null;
+
+        final List<BlockState> newPalette = new ArrayList<>(palette.size() + delta.newPalette.size());
+        newPalette.addAll(palette);
+        newPalette.addAll(delta.newPalette);
+
+        final int volume = getVolume(min, max);
+        final int bits = getBits(newPalette.size());
+
+        final PackedIntegerArray newData;
+        if (bits == getBits(palette.size())) {
+            newData = new PackedIntegerArray(bits, volume, data.getStorage().clone());
+        } else {
+            newData = new PackedIntegerArray(bits, volume);
+            for (int i = 0; i < volume; i++) newData.set(i, data.get(i));
+        }
+
+        for (int i = 0; i < delta.indices.length; i++) {
+            if (delta.indices[i] < 0 || delta.indices[i] >= volume || delta.values[i] >= newPalette.size()) return null;
+            newData.set(delta.indices[i], delta.values[i]);
+        }
+
+        return new AreaSnapshot(id, nextVersion, min, max, newPalette, newData);
+    }
+
+    /**
+     * Decodes a delta made for this version of the snapshot back into the changes it was created from
+     *
+     * @param delta The delta to decode
+     * @return The new states of the changed blocks, keyed by their index, empty if the delta was made for a different version
+     */
+    public Int2ObjectMap<BlockState> getChanges(Delta delta) {
+        final Int2ObjectMap<BlockState> changes = new Int2ObjectOpenHashMap<>(delta.indices.length);
+        if (delta.id != id || delta.baseVersion != version) return changes;
+
+        for (int i = 0; i < delta.indices.length; i++) {
+            final int value = delta.values[i];
+            if (value < palette.size()) {
+                changes.put(delta.indices[i], palette.get(value));
+            } else if (value - palette.size() < delta.newPalette.size()) {
+                changes.put(delta.indices[i], delta.newPalette.get(value - palette.size()));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * @return {@code true} if this snapshot covers the area between the given corners
+     */
+    public boolean covers(BlockPos start, BlockPos end) {
+        return min.getX() == Math.min(start.getX(), end.getX()) && max.getX() == Math.max(start.getX(), end.getX())
+                && min.getY() == Math.min(start.getY(), end.getY()) && max.getY() == Math.max(start.getY(), end.getY())
+                && min.getZ() == Math.min(start.getZ(), end.getZ()) && max.getZ() == Math.max(start.getZ(), end.getZ());
+    }
+
+    /**
+     * @return The id shared by all versions of this snapshot
+     */
+    public long getId() {
+        return id;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public BlockPos getMin() {
+        return min;
+    }
+
+    public BlockPos getMax() {
+        return max;
+    }
+
+    public static int getVolume(BlockPos start, BlockPos end) {
+        return (Math.abs(end.getX() - start.getX()) + 1) * (Math.abs(end.getY() - start.getY()) + 1) * (Math.abs(end.getZ() - start.getZ()) + 1);
+    }
+
+    private static int getBits(int paletteSize) {
+        return Math.max(1, MathHelper.log2DeBruijn(paletteSize));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AreaSnapshot)) return false;
+        final AreaSnapshot other = (AreaSnapshot) o;
+        return id == other.id && version == other.version && min.equals(other.min) && max.equals(other.max);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(id) + version;
+    }
+
+    /**
+     * A set of block changes against one version of a snapshot. On the wire each change is the index of
+     * the block and its palette index, so the size of a delta only depends on the number of changed blocks
+     */
+    public static class Delta {
+
+        private final long id;
+        private final int baseVersion;
+        private final List<BlockState> newPalette;
+        private final int[] indices;
+        private final int[] values;
+
+        private Delta(long id, int baseVersion, List<BlockState> newPalette, int[] indices, int[] values) {
+            this.id = id;
+            this.baseVersion = baseVersion;
+            this.newPalette = newPalette;
+            this.indices = indices;
+            this.values = values;
+        }
+
+        public static Delta read(PacketByteBuf buf) {
+            final long id = buf.readLong();
+            final int baseVersion = buf.readVarInt();
+
+            final int paletteSize = buf.readVarInt();
+            final List<BlockState> newPalette = new ArrayList<>(paletteSize);
+            for (int i = 0; i < paletteSize; i++) {
+                newPalette.add(Block.getStateFromRawId(buf.readVarInt()));
+            }
+
+            final int changes = buf.readVarInt();
+            final int[] indices = new int[changes];
+            final int[] values = new int[changes];
+            for (int i = 0; i < changes; i++) {
+                indices[i] = buf.readVarInt();
+                values[i] = buf.readVarInt();
+            }
+
+            return new Delta(id, baseVersion, newPalette, indices, values);
+        }
+
+        public void write(PacketByteBuf buf) {
+            buf.writeLong(id);
+            buf.writeVarInt(baseVersion);
+
+            buf.writeVarInt(newPalette.size());
+            for (BlockState state : newPalette) {
+                buf.writeVarInt(Block.getRawIdFromState(state));
+            }
+
+            buf.writeVarInt(indices.length);
+            for (int i = 0; i < indices.length; i++) {
+                buf.writeVarInt(indices[i]);
+                buf.writeVarInt(values[i]);
+            }
+        }
+
+        /**
+         * Reads a delta written by {@link #toNbt()}. Unlike on the wire, new palette entries are saved
+         * as block states, so saved deltas survive changes to the block registry
+         */
+        public static Delta fromNbt(NbtCompound tag) {
+            final NbtList paletteTag = tag.getList("Palette", NbtType.COMPOUND);
+            final List<BlockState> newPalette = new ArrayList<>(paletteTag.size());
+            for (int i = 0; i < paletteTag.size(); i++) {
+                newPalette.add(NbtHelper.toBlockState(paletteTag.getCompound(i)));
+            }
+
+            int[] indices = tag.getIntArray("Indices");
+            int[] values = tag.getIntArray("Values");
+            if (indices.length != values.length) indices = values = new int[0];
+
+            return new Delta(tag.getLong("Id"), tag.getInt("BaseVersion"), newPalette, indices, values);
+        }
+
+        public NbtCompound toNbt() {
+            final NbtCompound tag = new NbtCompound();
+            tag.putLong("Id", id);
+            tag.putInt("BaseVersion", baseVersion);
+
+            final NbtList paletteTag = new NbtList();
+            for (BlockState state : newPalette) {
+                paletteTag.add(NbtHelper.fromBlockState(state));
+            }
+            tag.put("Palette", paletteTag);
+            tag.putIntArray("Indices", indices);
+            tag.putIntArray("Values", values);
+
+            return tag;
+        }
+
+        public int getBaseVersion() {
+            return baseVersion;
+        }
+
+        public int[] getIndices() {
+            return indices;
+        }
+
+        public int size() {
+            return indices.length;
+        }
+    }
+}
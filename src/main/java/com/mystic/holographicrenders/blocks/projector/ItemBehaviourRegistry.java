@@ -0,0 +1,97 @@
+package com.mystic.holographicrenders.blocks.projector;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.tag.Tag;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Behaviours registered for items, looked up in three tiers. Behaviours for an exact item are found through a
+ * direct index, so their lookup costs the same no matter how many behaviours are registered. Item tags are tested
+ * next, in registration order, and predicates last, highest priority first
+ *
+ * @param <T> The type of the registered behaviours
+ */
+public class ItemBehaviourRegistry<T> {
+
+    private final Reference2ObjectOpenHashMap<Item, T> itemBehaviours = new Reference2ObjectOpenHashMap<>();
+    private final List<TagEntry<T>> tagBehaviours = new ArrayList<>();
+    private final List<PredicateEntry<T>> predicateBehaviours = new ArrayList<>();
+
+    /**
+     * Registers a behaviour for every stack of the given item
+     *
+     * @throws IllegalStateException If the item already has a behaviour
+     */
+    public void register(Item item, T behaviour) {
+        if (itemBehaviours.containsKey(item)) throw new IllegalStateException("Tried to double-register behaviour for item " + item + "!");
+        itemBehaviours.put(item, behaviour);
+    }
+
+    /**
+     * Registers a behaviour for every stack whose item is in the given tag
+     */
+    public void register(Tag<Item> tag, T behaviour) {
+        tagBehaviours.add(new TagEntry<>(tag, behaviour));
+    }
+
+    /**
+     * Registers a behaviour for every stack that meets the given predicate. Ties in priority are resolved in registration order
+     *
+     * @param priority Higher values are tested first
+     */
+    public void register(Predicate<ItemStack> condition, int priority, T behaviour) {
+        int index = 0;
+        while (index < predicateBehaviours.size() && predicateBehaviours.get(index).priority >= priority) index++;
+        predicateBehaviours.add(index, new PredicateEntry<>(condition, priority, behaviour));
+    }
+
+    /**
+     * @return The behaviour for the given stack, or {@code null} if none applies
+     */
+    public @Nullable T get(ItemStack stack) {
+        final Item item = stack.getItem();
+
+        final T itemBehaviour = itemBehaviours.get(item);
+        if (itemBehaviour != null) return itemBehaviour;
+
+        for (int i = 0; i < tagBehaviours.size(); i++) {
+            final TagEntry<T> entry = tagBehaviours.get(i);
+            if (entry.tag.contains(item)) return entry.behaviour;
+        }
+
+        for (int i = 0; i < predicateBehaviours.size(); i++) {
+            final PredicateEntry<T> entry = predicateBehaviours.get(i);
+            if (entry.condition.test(stack)) return entry.behaviour;
+        }
+
+        return null;
+    }
+
+    private static class TagEntry<T> {
+        private final Tag<Item> tag;
+        private final T behaviour;
+
+        private TagEntry(Tag<Item> tag, T behaviour) {
+            this.tag = tag;
+            this.behaviour = behaviour;
+        }
+    }
+
+    private static class PredicateEntry<T> {
+        private final Predicate<ItemStack> condition;
+        private final int priority;
+        private final T behaviour;
+
+        private PredicateEntry(Predicate<ItemStack> condition, int priority, T behaviour) {
+            this.condition = condition;
+            this.priority = priority;
+            this.behaviour = behaviour;
+        }
+    }
+}
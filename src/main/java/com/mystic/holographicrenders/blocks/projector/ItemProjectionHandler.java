@@ -3,70 +3,100 @@ package com.mystic.holographicrenders.blocks.projector;
 import com.mystic.holographicrenders.HolographicRenders;
 import com.mystic.holographicrenders.client.RenderDataProvider;
 import com.mystic.holographicrenders.item.EntityScannerItem;
-import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityType;
 import net.minecraft.item.BlockItem;
 import net.minecraft.item.FilledMapItem;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.tag.Tag;
 import net.minecraft.util.math.BlockPos;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.ExecutionException;
 import java.util.function.Predicate;
 
 public class ItemProjectionHandler {
 
-    private static final HashMap<Predicate<ItemStack>, ItemProjectionBehaviour> REGISTRY = new HashMap<>();
+    /**
+     * The priority used for predicate behaviours registered without an explicit priority
+     */
+    public static final int DEFAULT_PRIORITY = 0;
+
+    private static final ItemBehaviourRegistry<ItemProjectionBehaviour> BEHAVIOURS = new ItemBehaviourRegistry<>();
 
     static {
-        registerBehaviour(stack -> stack.getItem() == HolographicRenders.ENTITY_SCANNER, (be, stack) -> {
+        registerBehaviour(HolographicRenders.ENTITY_SCANNER, (be, stack) -> {
             if (!stack.getOrCreateTag().contains("Entity")) return RenderDataProvider.EmptyProvider.INSTANCE;
             EntityType<?> type = ((EntityScannerItem) stack.getItem()).getEntityType(stack);
             if (type == null) return RenderDataProvider.EmptyProvider.INSTANCE;
-            Entity entity = type.create(be.getWorld());
-            entity.writeNbt(stack.getOrCreateTag().getCompound("Entity"));
-            entity.updatePosition(be.getPos().getX(), be.getPos().getY(), be.getPos().getZ());
-            return RenderDataProvider.EntityProvider.from(entity);
+            return RenderDataProvider.EntityProvider.of(stack.getOrCreateTag().getCompound("Entity").copy());
         });
 
-        registerBehaviour(stack -> stack.getItem() == HolographicRenders.AREA_SCANNER, (be, stack) -> {
+        registerBehaviour(HolographicRenders.AREA_SCANNER, (be, stack) -> {
             NbtCompound tag = stack.getOrCreateTag();
             if (tag.contains("Pos1") && tag.contains("Pos2")) {
                 BlockPos pos1 = BlockPos.fromLong(tag.getLong("Pos1"));
                 BlockPos pos2 = BlockPos.fromLong(tag.getLong("Pos2"));
-                try {
-                    return RenderDataProvider.AreaProvider.from(pos1, pos2);
-                } catch (ExecutionException ignored) {
-                    return RenderDataProvider.EmptyProvider.INSTANCE;
-                }
+                return RenderDataProvider.AreaProvider.from(pos1, pos2);
             }
 
             return RenderDataProvider.EmptyProvider.INSTANCE;
 
         });
 
-        registerBehaviour(stack -> stack.getItem() == HolographicRenders.TEXTURE_SCANNER, (be, stack) -> RenderDataProvider.TextureProvider.of(be.getStack(0).getOrCreateTag().getString("URL")));
+        registerBehaviour(HolographicRenders.TEXTURE_SCANNER, (be, stack) -> RenderDataProvider.TextureProvider.of(be.getStack(0).getOrCreateTag().getString("URL")));
 
-        registerBehaviour(stack -> stack.getItem() instanceof BlockItem, (be, stack) -> RenderDataProvider.BlockProvider.from(((BlockItem) stack.getItem()).getBlock().getDefaultState()));
+        registerBehaviour(Items.NAME_TAG, (be, stack) -> RenderDataProvider.TextProvider.from(stack.getName()));
 
-        registerBehaviour(stack -> stack.getItem() == Items.NAME_TAG, (be, stack) -> RenderDataProvider.TextProvider.from(stack.getName()));
-
-        registerBehaviour(itemStack -> itemStack.getItem() == Items.FILLED_MAP, (be, stack) -> {
+        registerBehaviour(Items.FILLED_MAP, (be, stack) -> {
             return RenderDataProvider.MapProvider.of(FilledMapItem.getMapId(stack));
         });
+
+        registerBehaviour(stack -> stack.getItem() instanceof BlockItem, (be, stack) -> RenderDataProvider.BlockProvider.from(((BlockItem) stack.getItem()).getBlock().getDefaultState()));
+    }
+
+    /**
+     * Registers a new behaviour that should be applied to every stack of the given item.
+     * Exact item behaviours are looked up directly and always win over tag and predicate behaviours
+     *
+     * @param item      The {@link Item} this behaviour applies to
+     * @param behaviour The behaviour to register
+     */
+    public static void registerBehaviour(Item item, ItemProjectionBehaviour behaviour) {
+        BEHAVIOURS.register(item, behaviour);
     }
 
     /**
-     * Registers a new behaviour that should be applied if the given predicate is met
+     * Registers a new behaviour that should be applied to every stack whose item is in the given tag.
+     * Tag behaviours are tested in registration order, after exact item behaviours
+     *
+     * @param tag       The item {@link Tag} this behaviour applies to
+     * @param behaviour The behaviour to register
+     */
+    public static void registerBehaviour(Tag<Item> tag, ItemProjectionBehaviour behaviour) {
+        BEHAVIOURS.register(tag, behaviour);
+    }
+
+    /**
+     * Registers a new behaviour that should be applied if the given predicate is met, using {@link #DEFAULT_PRIORITY}
      *
      * @param condition The {@link Predicate} to satisfy to apply the given behaviour
      * @param behaviour The behaviour to register
      */
     public static void registerBehaviour(Predicate<ItemStack> condition, ItemProjectionBehaviour behaviour) {
-        REGISTRY.put(condition, behaviour);
+        registerBehaviour(condition, DEFAULT_PRIORITY, behaviour);
+    }
+
+    /**
+     * Registers a new behaviour that should be applied if the given predicate is met. Predicates are tested
+     * last, highest priority first, with ties resolved in registration order
+     *
+     * @param condition The {@link Predicate} to satisfy to apply the given behaviour
+     * @param priority  The priority of this behaviour, higher values are tested first
+     * @param behaviour The behaviour to register
+     */
+    public static void registerBehaviour(Predicate<ItemStack> condition, int priority, ItemProjectionBehaviour behaviour) {
+        BEHAVIOURS.register(condition, priority, behaviour);
     }
 
     /**
@@ -77,18 +107,15 @@ public class ItemProjectionHandler {
      * @return The provider for the given stack
      */
     public static RenderDataProvider<?> getDataProvider(ProjectorBlockEntity be, ItemStack stack) {
-        for (Map.Entry<Predicate<ItemStack>, ItemProjectionBehaviour> entry : REGISTRY.entrySet()) {
-            if (!entry.getKey().test(stack)) continue;
-            return entry.getValue().getProvider(be, stack);
-        }
-        return RenderDataProvider.ItemProvider.from(stack);
+        final ItemProjectionBehaviour behaviour = BEHAVIOURS.get(stack);
+        return behaviour == null ? RenderDataProvider.ItemProvider.from(stack) : behaviour.getProvider(be, stack);
     }
 
     /**
      * A behaviour that defines how to create a {@link RenderDataProvider} for a given {@link ItemStack}
      */
     @FunctionalInterface
-    interface ItemProjectionBehaviour {
+    public interface ItemProjectionBehaviour {
         RenderDataProvider<?> getProvider(ProjectorBlockEntity be, ItemStack stack);
     }
 
@@ -0,0 +1,289 @@
+package com.mystic.holographicrenders.blocks.projector;
+
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.mystic.holographicrenders.HolographicRenders;
+import com.mystic.holographicrenders.HolographicRendersConfig;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.WorldSavePath;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Content addressed store for the large NBT payloads of projectors, like captured entities and area snapshots.
+ * Projectors save and sync the hash of a payload instead of the payload itself, so a payload shown by any number
+ * of projectors is stored once per world and fetched once per client
+ * <p>
+ * Every payload keeps track of the projectors referencing it, identified by dimension and position. The index of
+ * references is saved along with the worlds, so it never gets ahead of the chunks holding the projectors. A payload
+ * is only deleted when the server stops, and only if it lost its last reference before a save of the dimension that
+ * referenced it completed, so no saved chunk can reference it anymore. Payloads that lose their references without
+ * a save following, for example because the server crashed, are kept. Only used on the server thread
+ */
+public class PayloadStore {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final Gson GSON = new GsonBuilder().create();
+
+    private static PayloadStore instance = null;
+
+    private final Path dir;
+    private final Path indexPath;
+    private final Map<String, Set<String>> holders = new HashMap<>();
+    private final Map<String, String> released = new HashMap<>();
+    private final Set<String> collectable = new HashSet<>();
+    private final Map<String, NbtCompound> loaded = new LinkedHashMap<String, NbtCompound>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, NbtCompound> eldest) {
+            return size() > 256;
+        }
+    };
+    private boolean indexDirty = false;
+    private boolean indexLost = false;
+
+    PayloadStore(Path dir) {
+        this.dir = dir;
+        this.indexPath = dir.resolve("index.json");
+        loadIndex();
+    }
+
+    public static void register() {
+        ServerLifecycleEvents.SERVER_STARTING.register(server -> instance = new PayloadStore(server.getSavePath(WorldSavePath.ROOT).resolve(HolographicRenders.MOD_ID).resolve("payloads")));
+
+        // All worlds are saved and closed at this point
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            if (instance == null) return;
+            instance.deleteCollectable();
+            instance.saveIndex();
+            instance = null;
+        });
+    }
+
+    /**
+     * Called after a server world finished saving its chunks
+     *
+     * @param world The saved world
+     */
+    public static void onWorldSaved(ServerWorld world) {
+        if (instance != null) instance.onSaved(world.getRegistryKey().getValue().toString());
+    }
+
+    /**
+     * @return The store of the running server, or {@code null} if no server is running
+     */
+    public static @Nullable PayloadStore getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return The key identifying the projector at the given position as a holder of payloads
+     */
+    public static String getHolder(World world, BlockPos pos) {
+        return world.getRegistryKey().getValue() + "@" + pos.asLong();
+    }
+
+    /**
+     * Stores the given payload if it is at least {@link HolographicRendersConfig#payloadMinSize} bytes large.
+     * Identical payloads are only stored once
+     *
+     * @param payload The payload to store
+     * @return The hash of the payload, or {@code null} if it is small enough to be kept inline
+     */
+    public @Nullable String put(NbtCompound payload) {
+        final byte[] data = toBytes(payload);
+        if (data.length < HolographicRendersConfig.payloadMinSize) return null;
+
+        final String hash = Hashing.sha256().hashBytes(data).toString();
+        if (loaded.containsKey(hash)) return hash;
+
+        final Path file = getPath(hash);
+        if (!Files.exists(file)) {
+            final Path temp = dir.resolve(hash + ".tmp");
+            try {
+                Files.createDirectories(file.getParent());
+                NbtIo.writeCompressed(payload, temp.toFile());
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                LOGGER.warn("Could not write projector payload {}, keeping it inline", hash, e);
+                return null;
+            }
+        }
+
+        loaded.put(hash, payload.copy());
+        return hash;
+    }
+
+    /**
+     * Loads a payload from this store. The returned tag is shared, callers have to copy it before modifying it
+     *
+     * @param hash The hash of the payload
+     * @return The payload, or {@code null} if it does not exist
+     */
+    public @Nullable NbtCompound get(String hash) {
+        final NbtCompound cached = loaded.get(hash);
+        if (cached != null) return cached;
+
+        final Path file = getPath(hash);
+        if (!Files.exists(file)) return null;
+
+        try {
+            final NbtCompound payload = NbtIo.readCompressed(file.toFile());
+            loaded.put(hash, payload);
+            return payload;
+        } catch (IOException e) {
+            LOGGER.warn("Could not read projector payload {}", hash, e);
+            return null;
+        }
+    }
+
+    /**
+     * Records a reference to the given payload. Adding the same holder twice has no effect
+     *
+     * @param hash   The hash of the payload
+     * @param holder The key of the referencing projector, obtained from {@link #getHolder(World, BlockPos)}
+     */
+    public void acquire(String hash, String holder) {
+        if (holders.computeIfAbsent(hash, h -> new HashSet<>()).add(holder)) indexDirty = true;
+        released.remove(hash);
+        collectable.remove(hash);
+    }
+
+    /**
+     * Removes a reference added through {@link #acquire(String, String)}
+     */
+    public void release(String hash, String holder) {
+        final Set<String> payloadHolders = holders.get(hash);
+        if (payloadHolders == null || !payloadHolders.remove(holder)) return;
+
+        if (payloadHolders.isEmpty()) {
+            holders.remove(hash);
+
+            // Saved chunks of this dimension may still reference the payload until it is saved again
+            released.put(hash, holder.substring(0, holder.indexOf('@')));
+        }
+        indexDirty = true;
+    }
+
+    /**
+     * Saves the index and marks the payloads released in the given dimension as safe to delete,
+     * the chunks that referenced them have been saved without them
+     *
+     * @param dimension The id of the saved dimension
+     */
+    void onSaved(String dimension) {
+        released.entrySet().removeIf(entry -> {
+            if (!entry.getValue().equals(dimension)) return false;
+            collectable.add(entry.getKey());
+            return true;
+        });
+        saveIndex();
+    }
+
+    /**
+     * @return Whether a projector within the given distance of the given position references the given payload
+     */
+    public boolean isReferencedNear(String hash, World world, Vec3d pos, double distance) {
+        final Set<String> payloadHolders = holders.get(hash);
+        if (payloadHolders == null) return false;
+
+        final String prefix = world.getRegistryKey().getValue() + "@";
+        for (String holder : payloadHolders) {
+            if (!holder.startsWith(prefix)) continue;
+
+            final BlockPos holderPos = BlockPos.fromLong(Long.parseLong(holder.substring(prefix.length())));
+            if (Vec3d.ofCenter(holderPos).squaredDistanceTo(pos) <= distance * distance) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Deletes the payloads that are still unreferenced since they became safe to delete
+     */
+    void deleteCollectable() {
+        // Projectors in chunks that are not loaded this session are missing from a rebuilt index, nothing can be deleted safely
+        if (indexLost) return;
+
+        int deleted = 0;
+        for (String hash : collectable) {
+            if (holders.containsKey(hash)) continue;
+
+            try {
+                if (Files.deleteIfExists(getPath(hash))) deleted++;
+                loaded.remove(hash);
+            } catch (IOException e) {
+                LOGGER.warn("Could not delete projector payload {}", hash, e);
+            }
+        }
+        collectable.clear();
+
+        if (deleted > 0) LOGGER.info("Deleted {} unreferenced projector payloads", deleted);
+    }
+
+    private Path getPath(String hash) {
+        return dir.resolve(hash.substring(0, 2)).resolve(hash + ".nbt");
+    }
+
+    private void loadIndex() {
+        if (!Files.exists(indexPath)) return;
+
+        try (Reader reader = Files.newBufferedReader(indexPath)) {
+            final Map<String, Set<String>> index = GSON.fromJson(reader, new TypeToken<Map<String, Set<String>>>() {}.getType());
+            if (index != null) holders.putAll(index);
+        } catch (IOException | JsonParseException e) {
+            LOGGER.error("Projector payload index is corrupt, no payloads are deleted this session", e);
+            indexLost = true;
+        }
+    }
+
+    private void saveIndex() {
+        if (!indexDirty) return;
+
+        final Path temp = dir.resolve("index.json.tmp");
+        try {
+            Files.createDirectories(dir);
+            try (Writer writer = Files.newBufferedWriter(temp)) {
+                GSON.toJson(holders, writer);
+            }
+            Files.move(temp, indexPath, StandardCopyOption.REPLACE_EXISTING);
+            indexDirty = false;
+        } catch (IOException e) {
+            LOGGER.error("Could not write projector payload index", e);
+        }
+    }
+
+    private static byte[] toBytes(NbtCompound payload) {
+        final PacketByteBuf buf = new PacketByteBuf(Unpooled.buffer());
+        try (DataOutputStream stream = new DataOutputStream(new ByteBufOutputStream(buf))) {
+            NbtIo.write(payload, stream);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write projector payload", e);
+        }
+
+        final byte[] data = new byte[buf.readableBytes()];
+        buf.readBytes(data);
+        return data;
+    }
+}
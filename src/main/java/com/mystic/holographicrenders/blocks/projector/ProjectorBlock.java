@@ -160,7 +160,7 @@ public class ProjectorBlock extends BlockWithEntity {
 
         if (screenHandlerFactory != null) {
             player.openHandledScreen(screenHandlerFactory);
-            ((ServerPlayerEntity) player).networkHandler.sendPacket(ProjectorScreenPacket.createUpdate(be.lightsEnabled()));
+            ((ServerPlayerEntity) player).networkHandler.sendPacket(ProjectorScreenPacket.createUpdate(be.lightsEnabled(), be.isLiveArea()));
         }
 
         return ActionResult.SUCCESS;
@@ -192,6 +192,7 @@ public class ProjectorBlock extends BlockWithEntity {
             BlockEntity blockEntity = world.getBlockEntity(pos);
             if (blockEntity instanceof ProjectorBlockEntity) {
                 ItemScatterer.spawn(world, pos, (ProjectorBlockEntity) blockEntity);
+                if (!world.isClient) ((ProjectorBlockEntity) blockEntity).releasePayloads();
             }
             super.onStateReplaced(state, world, pos, newState, moved);
         }
@@ -1,18 +1,32 @@
 package com.mystic.holographicrenders.blocks.projector;
 
 import com.mystic.holographicrenders.HolographicRenders;
+import com.mystic.holographicrenders.HolographicRendersConfig;
+import com.mystic.holographicrenders.client.PayloadCache;
+import com.mystic.holographicrenders.client.PayloadLoader;
 import com.mystic.holographicrenders.client.RenderDataProvider;
 import com.mystic.holographicrenders.client.RenderDataProviderRegistry;
 import com.mystic.holographicrenders.gui.ImplementedInventory;
 import com.mystic.holographicrenders.gui.ProjectorScreenHandler;
+import com.mystic.holographicrenders.network.AreaDeltaPacket;
+import com.mystic.holographicrenders.network.ProjectorStatePacket;
+import com.mystic.holographicrenders.network.ProjectorSyncPacket;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import net.fabricmc.fabric.api.block.entity.BlockEntityClientSerializable;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.fabricmc.fabric.api.networking.v1.PlayerLookup;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
 import net.fabricmc.fabric.api.screenhandler.v1.ExtendedScreenHandlerFactory;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.block.entity.BlockEntityType;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.Packet;
 import net.minecraft.network.PacketByteBuf;
 import net.minecraft.screen.ScreenHandler;
 import net.minecraft.server.network.ServerPlayerEntity;
@@ -20,22 +34,87 @@ import net.minecraft.text.Text;
 import net.minecraft.text.TranslatableText;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.collection.DefaultedList;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 
 public class ProjectorBlockEntity extends BlockEntity implements BlockEntityClientSerializable, ExtendedScreenHandlerFactory, ImplementedInventory {
 
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * Fields that can be synced on their own through {@link #markDirty(int)}. Changes
+     * to the content are always sent as the full state through {@link ProjectorStatePacket}
+     */
+    public static final int SYNC_ALPHA = 1;
+    public static final int SYNC_LIGHTS = 1 << 1;
+    public static final int SYNC_LIVE_AREA = 1 << 2;
+    public static final int SYNC_CONTENT = 1 << 3;
+
+    private static final int MAX_QUEUED_AREA_DELTAS = 256;
+
     private final DefaultedList<ItemStack> inventory = DefaultedList.ofSize(1, ItemStack.EMPTY);
     private float alpha = 1;
     private boolean lightEnabled = true;
     private  RenderDataProvider<?> renderer = RenderDataProvider.EmptyProvider.INSTANCE;
 
+    private RenderDataProvider<?> resolvedProvider = null;
+    private boolean resolvedProviderDirty = true;
+    private Item resolvedItem = null;
+    private int resolvedCount = 0;
+    private @Nullable NbtCompound resolvedTag = null;
+
+    private long providerCacheHits = 0;
+    private long providerCacheMisses = 0;
+
+    private Box renderBounds = null;
+    private RenderDataProvider<?> renderBoundsProvider = null;
+    private BlockState renderBoundsState = null;
+
+    private AreaSnapshot areaSnapshot = null;
+    private boolean areaSnapshotPending = false;
+    private boolean liveArea = false;
+    private final Int2ObjectMap<BlockState> pendingAreaChanges = new Int2ObjectOpenHashMap<>();
+    private long lastAreaUpdate = 0;
+
+    private @Nullable String stackPayload = null;
+    private @Nullable NbtCompound stackPayloadSource = null;
+    private boolean stackPayloadDirty = true;
+    private @Nullable String snapshotPayload = null;
+    private @Nullable AreaSnapshot snapshotPayloadSource = null;
+    private boolean snapshotPayloadDirty = true;
+    private final Int2ObjectMap<BlockState> storedAreaChanges = new Int2ObjectOpenHashMap<>();
+    private @Nullable AreaSnapshot.Delta snapshotPayloadChanges = null;
+    private int snapshotPayloadVersion = 0;
+    private final List<AreaSnapshot.Delta> queuedAreaDeltas = new ArrayList<>();
+    private boolean stackPayloadLoaded = false;
+    private boolean snapshotPayloadLoaded = false;
+    private boolean payloadsRequested = false;
+
+    private int pendingSync = 0;
+    private long syncPackets = 0;
+    private long syncBytes = 0;
 
     public @NotNull RenderDataProvider<?> getRenderer() {
         return renderer;
     }
 
     public ProjectorBlockEntity() {
-        super(HolographicRenders.PROJECTOR_BLOCK_ENTITY);
+        this(HolographicRenders.PROJECTOR_BLOCK_ENTITY);
+    }
+
+    /**
+     * Creates a projector of another block entity type, for blocks that extend the projector
+     */
+    public ProjectorBlockEntity(BlockEntityType<?> type) {
+        super(type);
     }
 
     public ItemStack getItem() {
@@ -47,9 +126,204 @@ public class ProjectorBlockEntity extends BlockEntity implements BlockEntityClie
         this.markDirty();
     }
 
+    /**
+     * Gets the {@link RenderDataProvider} for the stack currently in this projector. The provider
+     * is only resolved again through {@link ItemProjectionHandler} if item, count or NBT of the stack changed
+     *
+     * @return The provider for the current stack
+     */
+    public @NotNull RenderDataProvider<?> getResolvedProvider() {
+        if (resolvedProvider != null && !resolvedProviderDirty) {
+            providerCacheHits++;
+            return resolvedProvider;
+        }
+
+        final ItemStack stack = getItem();
+        resolvedProviderDirty = false;
+
+        // Compared against a copy, the tag of the stack is mutable and hash codes can collide
+        if (resolvedProvider != null && stack.getItem() == resolvedItem && stack.getCount() == resolvedCount && Objects.equals(stack.getTag(), resolvedTag)) {
+            providerCacheHits++;
+            return resolvedProvider;
+        }
+
+        providerCacheMisses++;
+        resolvedItem = stack.getItem();
+        resolvedCount = stack.getCount();
+        resolvedTag = stack.hasTag() ? stack.getTag().copy() : null;
+        if (resolvedProvider != null) resolvedProvider.dispose();
+        resolvedProvider = ItemProjectionHandler.getDataProvider(this, stack);
+        return resolvedProvider;
+    }
+
+    private void invalidateResolvedProvider() {
+        resolvedProviderDirty = true;
+        renderBoundsProvider = null;
+    }
+
+    /**
+     * Gets the world space render bounds stored through {@link #setRenderBounds(RenderDataProvider, Box)},
+     * if they were computed for the given provider and the current block state
+     *
+     * @param provider The provider that is about to be rendered
+     * @return The cached bounds, or {@code null} if they need to be recomputed
+     */
+    public @Nullable Box getRenderBounds(RenderDataProvider<?> provider) {
+        return provider == renderBoundsProvider && getCachedState() == renderBoundsState ? renderBounds : null;
+    }
+
+    public void setRenderBounds(RenderDataProvider<?> provider, Box bounds) {
+        this.renderBounds = bounds;
+        this.renderBoundsProvider = provider;
+        this.renderBoundsState = getCachedState();
+    }
+
+    /**
+     * Gets the snapshot of the area scanned by the area scanner in this projector. The snapshot
+     * is taken on the server when the scanner is inserted and synced to clients with the projector
+     *
+     * @return The snapshot, or {@code null} if there is no area scanner in this projector, its area was too large or is not loaded yet
+     */
+    public @Nullable AreaSnapshot getAreaSnapshot() {
+        return areaSnapshot;
+    }
+
+    private void updateAreaSnapshot() {
+        final ItemStack stack = getItem();
+        final NbtCompound tag = stack.getTag();
+
+        areaSnapshotPending = false;
+        if (stack.getItem() != HolographicRenders.AREA_SCANNER || tag == null || !tag.contains("Pos1") || !tag.contains("Pos2")) {
+            areaSnapshot = null;
+            pendingAreaChanges.clear();
+            return;
+        }
+
+        final BlockPos start = BlockPos.fromLong(tag.getLong("Pos1"));
+        final BlockPos end = BlockPos.fromLong(tag.getLong("Pos2"));
+        if (areaSnapshot != null && areaSnapshot.covers(start, end)) return;
+
+        pendingAreaChanges.clear();
+        if (AreaSnapshot.getVolume(start, end) > HolographicRendersConfig.areaSnapshotMaxVolume) {
+            areaSnapshot = null;
+            return;
+        }
+
+        // Areas reaching into unloaded chunks are captured once they are loaded, see retryAreaSnapshot()
+        areaSnapshot = AreaSnapshot.capture(world, start, end);
+        areaSnapshotPending = areaSnapshot == null;
+    }
+
+    /**
+     * Captures the area snapshot again if parts of the area were not loaded at the last attempt.
+     * Called on the server every tick, attempts are made once per second
+     */
+    public void retryAreaSnapshot() {
+        if (!areaSnapshotPending || world.getTime() % 20 != 0) return;
+
+        updateAreaSnapshot();
+        if (areaSnapshot != null) markDirty(SYNC_CONTENT);
+    }
+
+    /**
+     * Enables or disables live updates of the area snapshot. Changes made while disabled are not
+     * recorded, so the area is captured again when live updates are enabled
+     *
+     * @param liveArea Whether block changes inside the area should be sent to clients
+     */
+    public void setLiveArea(boolean liveArea) {
+        if (liveArea == this.liveArea) return;
+        if (liveArea) areaSnapshot = null;
+        this.liveArea = liveArea;
+        this.markDirty(SYNC_LIVE_AREA | SYNC_CONTENT);
+    }
+
+    public boolean isLiveArea() {
+        return liveArea;
+    }
+
+    /**
+     * Records a block change for the next area update, called on the server for every changed block.
+     * Multiple changes to the same block are coalesced
+     *
+     * @param pos   The position of the changed block
+     * @param state The new state of the block
+     */
+    public void recordAreaChange(BlockPos pos, BlockState state) {
+        if (!liveArea || areaSnapshot == null) return;
+
+        final int index = areaSnapshot.getIndex(pos);
+        if (index >= 0) pendingAreaChanges.put(index, state);
+    }
+
+    /**
+     * Applies the recorded block changes to the area snapshot, if there are any and the last update
+     * was at least {@link HolographicRendersConfig#areaLiveUpdateInterval} ticks ago
+     *
+     * @return The delta to send to clients, or {@code null} if there is nothing to send yet
+     */
+    public @Nullable AreaSnapshot.Delta pollAreaChanges() {
+        if (pendingAreaChanges.isEmpty() || world.getTime() - lastAreaUpdate < HolographicRendersConfig.areaLiveUpdateInterval) return null;
+
+        final AreaSnapshot.Delta delta = areaSnapshot.createDelta(pendingAreaChanges);
+        if (snapshotPayload != null && snapshotPayloadSource != null && !snapshotPayloadDirty) storedAreaChanges.putAll(pendingAreaChanges);
+        pendingAreaChanges.clear();
+        areaSnapshot = areaSnapshot.apply(delta);
+        lastAreaUpdate = world.getTime();
+
+        // Once the changes get large compared to the area, store the current snapshot instead and send its hash
+        if (storedAreaChanges.size() > Math.max(MAX_QUEUED_AREA_DELTAS, AreaSnapshot.getVolume(areaSnapshot.getMin(), areaSnapshot.getMax()) / 16)) {
+            markDirty(SYNC_CONTENT);
+        } else {
+            world.markDirty(pos, this);
+        }
+        return delta;
+    }
+
+    /**
+     * Holds on to a delta received while the stored area snapshot is loading, it is applied once the snapshot arrived
+     *
+     * @param delta The delta received from the server
+     * @return {@code false} if too many deltas piled up, they are dropped and a full resync is needed
+     */
+    public boolean queueAreaDelta(AreaSnapshot.Delta delta) {
+        if (queuedAreaDeltas.size() >= MAX_QUEUED_AREA_DELTAS) {
+            queuedAreaDeltas.clear();
+            return false;
+        }
+
+        queuedAreaDeltas.add(delta);
+        return true;
+    }
+
+    /**
+     * Applies a delta received from the server
+     *
+     * @param delta The delta to apply
+     * @return {@code false} if the delta does not fit the current snapshot and a full resync is needed
+     */
+    public boolean applyAreaDelta(AreaSnapshot.Delta delta) {
+        if (areaSnapshot == null) return false;
+
+        final AreaSnapshot next = areaSnapshot.apply(delta);
+        if (next == null) return false;
+
+        areaSnapshot = next;
+        return true;
+    }
+
+    public long getProviderCacheHits() {
+        return providerCacheHits;
+    }
+
+    public long getProviderCacheMisses() {
+        return providerCacheMisses;
+    }
+
     public void setAlpha(float alpha) {
+        if (alpha == this.alpha) return;
         this.alpha = alpha;
-        this.markDirty();
+        this.markDirty(SYNC_ALPHA);
     }
 
     public float getAlpha() {
@@ -57,8 +331,9 @@ public class ProjectorBlockEntity extends BlockEntity implements BlockEntityClie
     }
 
     public void setLightEnabled(boolean shouldDrawLights) {
+        if (shouldDrawLights == this.lightEnabled) return;
         this.lightEnabled = shouldDrawLights;
-        this.markDirty();
+        this.markDirty(SYNC_LIGHTS);
     }
 
     public boolean lightsEnabled() {
@@ -70,17 +345,356 @@ public class ProjectorBlockEntity extends BlockEntity implements BlockEntityClie
         super.fromTag(state, tag);
         alpha = tag.getFloat("Alpha");
         lightEnabled = tag.getBoolean("Lights");
-        Identifier providerId = Identifier.tryParse(tag.getString("RendererType"));
+        liveArea = tag.getBoolean("LiveArea");
+        readStack(tag.getCompound("Stack"), tag.contains("StackPayload") ? tag.getString("StackPayload") : null);
+        applyRenderer(Identifier.tryParse(tag.getString("RendererType")), tag.getCompound("RenderData"));
+        readAreaSnapshot(tag.contains("AreaSnapshot") ? tag.getCompound("AreaSnapshot") : null, tag.contains("AreaSnapshotPayload") ? tag.getString("AreaSnapshotPayload") : null,
+                tag.contains("AreaSnapshotChanges") ? AreaSnapshot.Delta.fromNbt(tag.getCompound("AreaSnapshotChanges")) : null, tag.getInt("AreaSnapshotVersion"));
+        invalidateResolvedProvider();
+    }
+
+    /**
+     * Switches to a provider of the given type and loads its data
+     *
+     * @param providerId The type of the provider, {@code null} for none
+     * @param renderData The data of the provider, or {@code null} if it is restored from the stack in this projector
+     */
+    private void applyRenderer(@Nullable Identifier providerId, @Nullable NbtCompound renderData) {
+        final RenderDataProvider<?> previousRenderer = renderer;
         renderer = providerId == null ? RenderDataProvider.EmptyProvider.INSTANCE : RenderDataProviderRegistry.getProvider(renderer, providerId);
-        renderer.fromNbt(tag, this);
-        inventory.set(0, ItemStack.fromNbt(tag.getCompound("Stack")));
+        if (previousRenderer != renderer) previousRenderer.dispose();
+
+        if (renderData == null) {
+            renderer.readStackData(getItem());
+        } else {
+            renderer.readData(renderData, this);
+        }
+    }
+
+    /**
+     * Loads the stack of this projector, restoring its tag from the {@link PayloadStore} if it was stored there.
+     * The server reads the payload right away, clients leave it to the {@link PayloadLoader}
+     *
+     * @param stackTag The stack, without its tag if it was stored
+     * @param payload  The hash of the stored tag, or {@code null} if the tag is part of the stack
+     */
+    private void readStack(NbtCompound stackTag, @Nullable String payload) {
+        final ItemStack previous = getItem();
+        final ItemStack stack = ItemStack.fromNbt(stackTag);
+        inventory.set(0, stack);
+
+        if (!isClientSide()) {
+            releasePayload(stackPayload, payload);
+            stackPayload = payload;
+            stackPayloadDirty = payload == null;
+            if (payload == null) return;
+
+            final PayloadStore store = PayloadStore.getInstance();
+            final NbtCompound loaded = store == null ? null : store.get(payload);
+            if (loaded == null) {
+                // The reference is kept, so the projector picks the payload up again if the file is restored
+                LOGGER.warn("Projector at {} references missing payload {}, keeping the reference", pos.toShortString(), payload);
+                return;
+            }
+
+            stack.setTag(loaded.copy());
+            stackPayloadSource = stack.getTag();
+            return;
+        }
+
+        if (payload == null) {
+            stackPayload = null;
+            return;
+        }
+
+        // Same payload as before, keep the tag if it already arrived
+        if (payload.equals(stackPayload)) {
+            if (stackPayloadLoaded) stack.setTag(previous.getTag());
+            return;
+        }
+
+        stackPayload = payload;
+        stackPayloadLoaded = false;
+        payloadsRequested = false;
+        PayloadLoader.track(this);
+    }
+
+    /**
+     * Loads the area snapshot of this projector, see {@link #readStack(NbtCompound, String)}. Live changes
+     * made since a snapshot was stored are saved and synced on top of it
+     *
+     * @param snapshotTag The snapshot, or {@code null} if it was stored or there is none
+     * @param payload     The hash of the stored snapshot, or {@code null} if it was not stored
+     * @param changes     The changes made since the snapshot was stored, or {@code null} if there are none
+     * @param version     The version of the snapshot with the changes applied
+     */
+    private void readAreaSnapshot(@Nullable NbtCompound snapshotTag, @Nullable String payload, @Nullable AreaSnapshot.Delta changes, int version) {
+        if (payload == null) {
+            if (!isClientSide()) releasePayload(snapshotPayload, null);
+            snapshotPayload = null;
+            snapshotPayloadSource = null;
+            snapshotPayloadDirty = true;
+            snapshotPayloadChanges = null;
+            storedAreaChanges.clear();
+            queuedAreaDeltas.clear();
+            applyAreaSnapshot(snapshotTag == null ? null : AreaSnapshot.fromNbt(snapshotTag));
+            return;
+        }
+
+        if (!isClientSide()) {
+            releasePayload(snapshotPayload, payload);
+            snapshotPayload = payload;
+            snapshotPayloadDirty = false;
+            storedAreaChanges.clear();
+
+            final PayloadStore store = PayloadStore.getInstance();
+            final NbtCompound loaded = store == null ? null : store.get(payload);
+            if (loaded == null) LOGGER.warn("Projector at {} references missing area snapshot payload {}, keeping the reference", pos.toShortString(), payload);
+
+            final AreaSnapshot stored = loaded == null ? null : AreaSnapshot.fromNbt(loaded);
+            final AreaSnapshot current = stored == null || changes == null ? null : stored.apply(changes, version);
+            if (current != null) storedAreaChanges.putAll(stored.getChanges(changes));
+
+            applyAreaSnapshot(current != null ? current : stored);
+            snapshotPayloadSource = stored;
+            return;
+        }
+
+        // The previous snapshot stays until the new one arrives, area holograms ignore snapshots of other areas
+        if (payload.equals(snapshotPayload) && snapshotPayloadLoaded && areaSnapshot != null && areaSnapshot.getVersion() == version) return;
+
+        snapshotPayload = payload;
+        snapshotPayloadChanges = changes;
+        snapshotPayloadVersion = version;
+        snapshotPayloadLoaded = false;
+        payloadsRequested = false;
+        PayloadLoader.track(this);
+    }
+
+    /**
+     * Rebuilds the current area snapshot on the client from the stored one, the changes synced on top of it
+     * and the deltas queued while it was loading. Requests a full resync if they do not fit together
+     *
+     * @param payload The stored snapshot
+     * @return The current snapshot, or {@code null} if the stored one is malformed
+     */
+    private @Nullable AreaSnapshot restoreAreaSnapshot(NbtCompound payload) {
+        AreaSnapshot snapshot = AreaSnapshot.fromNbt(payload);
+        if (snapshot != null && snapshotPayloadChanges != null) snapshot = snapshot.apply(snapshotPayloadChanges, snapshotPayloadVersion);
+
+        boolean resync = snapshot == null;
+        for (AreaSnapshot.Delta delta : queuedAreaDeltas) {
+            if (snapshot == null) break;
+
+            // Deltas sent before the state that referenced the stored snapshot are already part of it
+            if (delta.getBaseVersion() < snapshot.getVersion()) continue;
+
+            final AreaSnapshot next = snapshot.apply(delta);
+            if (next == null) {
+                resync = true;
+                break;
+            }
+            snapshot = next;
+        }
+        queuedAreaDeltas.clear();
+
+        if (resync) AreaDeltaPacket.requestResync(pos);
+        return snapshot;
+    }
+
+    /**
+     * @return Whether this projector references any stored payloads, only meaningful on the client
+     */
+    public boolean hasStoredPayloads() {
+        return stackPayload != null || snapshotPayload != null;
+    }
+
+    /**
+     * @return Whether stored payloads of this projector are neither loaded nor requested
+     */
+    public boolean needsPayloads() {
+        return !payloadsRequested && (stackPayload != null && !stackPayloadLoaded || snapshotPayload != null && !snapshotPayloadLoaded);
+    }
+
+    /**
+     * Requests the stored payloads of this projector, called by the {@link PayloadLoader} once it is close enough
+     */
+    public void loadPayloads() {
+        payloadsRequested = true;
+
+        final String stack = stackPayload;
+        if (stack != null && !stackPayloadLoaded) {
+            PayloadCache.get(stack, loaded -> {
+                if (isRemoved() || !payloadsRequested || !stack.equals(stackPayload)) return;
+                if (loaded == null) {
+                    payloadsRequested = false;
+                    return;
+                }
+
+                getItem().setTag(loaded.copy());
+                stackPayloadLoaded = true;
+                invalidateResolvedProvider();
+            });
+        }
+
+        final String snapshot = snapshotPayload;
+        if (snapshot != null && !snapshotPayloadLoaded) {
+            PayloadCache.get(snapshot, loaded -> {
+                if (isRemoved() || !payloadsRequested || snapshotPayloadLoaded || !snapshot.equals(snapshotPayload)) return;
+                if (loaded == null) {
+                    payloadsRequested = false;
+                    return;
+                }
+
+                applyAreaSnapshot(restoreAreaSnapshot(loaded));
+                snapshotPayloadLoaded = true;
+            });
+        }
+    }
+
+    /**
+     * @return Whether this projector knows the hash of its area snapshot but has not loaded it yet
+     */
+    public boolean isAwaitingAreaSnapshot() {
+        return snapshotPayload != null && !snapshotPayloadLoaded;
+    }
+
+    /**
+     * Drops the stored payloads of this projector on the client, keeping their hashes so they can be loaded again
+     */
+    public void discardPayloads() {
+        if (!payloadsRequested) return;
+        payloadsRequested = false;
+
+        if (stackPayload != null) {
+            getItem().setTag(null);
+            stackPayloadLoaded = false;
+            invalidateResolvedProvider();
+        }
+
+        if (snapshotPayload != null) {
+            areaSnapshot = null;
+            snapshotPayloadLoaded = false;
+        }
+    }
+
+    /**
+     * Gets the hash the tag of the stack in this projector is stored under, storing it first if it changed
+     *
+     * @return The hash, or {@code null} if the tag is small enough to be saved inline
+     */
+    private @Nullable String getStackPayload() {
+        final NbtCompound tag = getItem().getTag();
+        if (stackPayloadDirty || tag != stackPayloadSource) {
+            stackPayload = storePayload(tag, stackPayload);
+            stackPayloadSource = tag;
+            stackPayloadDirty = false;
+        }
+        return stackPayload;
+    }
+
+    /**
+     * Gets the hash the area snapshot of this projector is stored under, see {@link #getStackPayload()}. The
+     * snapshot is only stored again when the content changes, live changes are kept on top of the stored
+     * snapshot, see {@link #getStoredAreaChanges()}. Clients still fetching a stored snapshot can rely on it
+     * staying available until they receive the next hash
+     */
+    private @Nullable String getSnapshotPayload() {
+        if (snapshotPayloadDirty) {
+            snapshotPayload = storePayload(areaSnapshot == null ? null : areaSnapshot.toNbt(), snapshotPayload);
+            snapshotPayloadSource = areaSnapshot;
+            snapshotPayloadDirty = false;
+            storedAreaChanges.clear();
+        }
+        return snapshotPayload;
+    }
+
+    /**
+     * @return The live changes made since the area snapshot was stored, or {@code null} if there are none
+     */
+    private @Nullable AreaSnapshot.Delta getStoredAreaChanges() {
+        return snapshotPayloadSource == null || storedAreaChanges.isEmpty() ? null : snapshotPayloadSource.createDelta(storedAreaChanges);
+    }
+
+    private @Nullable String storePayload(@Nullable NbtCompound payload, @Nullable String previous) {
+        final PayloadStore store = PayloadStore.getInstance();
+        final String hash = payload == null ? null : store.put(payload);
+        if (hash != null) store.acquire(hash, PayloadStore.getHolder(world, pos));
+        releasePayload(previous, hash);
+        return hash;
+    }
+
+    private void releasePayload(@Nullable String previous, @Nullable String next) {
+        final PayloadStore store = PayloadStore.getInstance();
+        if (store == null || world == null || previous == null || previous.equals(next)) return;
+        store.release(previous, PayloadStore.getHolder(world, pos));
+    }
+
+    /**
+     * Records the payloads of this projector as referenced, called on the server when it is loaded
+     */
+    public void acquirePayloads() {
+        final PayloadStore store = PayloadStore.getInstance();
+        if (store == null) return;
+
+        final String holder = PayloadStore.getHolder(world, pos);
+        if (stackPayload != null) store.acquire(stackPayload, holder);
+        if (snapshotPayload != null) store.acquire(snapshotPayload, holder);
+    }
+
+    /**
+     * Releases the payloads of this projector, called on the server when it is broken
+     */
+    public void releasePayloads() {
+        releasePayload(stackPayload, null);
+        releasePayload(snapshotPayload, null);
+        stackPayload = null;
+        snapshotPayload = null;
+        stackPayloadDirty = true;
+        snapshotPayloadSource = null;
+        snapshotPayloadDirty = true;
+        storedAreaChanges.clear();
+    }
+
+    /**
+     * Whether payloads of this projector go through the {@link PayloadStore} of a running server
+     */
+    private boolean usesPayloadStore() {
+        return world != null && !world.isClient && PayloadStore.getInstance() != null;
+    }
+
+    private boolean isClientSide() {
+        return world != null && world.isClient;
+    }
+
+    private void applyAreaSnapshot(@Nullable AreaSnapshot snapshot) {
+        // Keep the current instance if nothing changed, area meshes are rebuilt when the snapshot instance changes
+        if (snapshot == null || !snapshot.equals(areaSnapshot)) areaSnapshot = snapshot;
     }
 
     @Override
     public NbtCompound writeNbt(NbtCompound tag) {
         tag.putFloat("Alpha", alpha);
         tag.putBoolean("Lights", lightEnabled);
-        tag.put("Stack", getItem().writeNbt(new NbtCompound()));
+        tag.putBoolean("LiveArea", liveArea);
+        final NbtCompound stackTag = getItem().writeNbt(new NbtCompound());
+        final String stackPayload = usesPayloadStore() ? getStackPayload() : null;
+        if (stackPayload != null) {
+            stackTag.remove("tag");
+            tag.putString("StackPayload", stackPayload);
+        }
+        tag.put("Stack", stackTag);
+
+        final String snapshotPayload = usesPayloadStore() ? getSnapshotPayload() : null;
+        if (snapshotPayload != null) {
+            tag.putString("AreaSnapshotPayload", snapshotPayload);
+
+            final AreaSnapshot.Delta changes = getStoredAreaChanges();
+            if (changes != null) tag.put("AreaSnapshotChanges", changes.toNbt());
+            if (areaSnapshot != null) tag.putInt("AreaSnapshotVersion", areaSnapshot.getVersion());
+        } else if (areaSnapshot != null) {
+            tag.put("AreaSnapshot", areaSnapshot.toNbt());
+        }
         renderer.toNbt(tag, this);
         return super.writeNbt(tag);
     }
@@ -92,12 +706,189 @@ public class ProjectorBlockEntity extends BlockEntity implements BlockEntityClie
         }
     }
 
+    @Override
+    public void markRemoved() {
+        super.markRemoved();
+        disposeProviders();
+    }
+
+    /**
+     * Releases the client-side resources held by the providers of this projector, called when it is
+     * removed or its chunk is unloaded. Providers acquire them again if they are rendered afterwards
+     */
+    public void disposeProviders() {
+        if (resolvedProvider != null) {
+            resolvedProvider.dispose();
+            resolvedProvider = null;
+        }
+        renderer.dispose();
+    }
+
     @Override
     public void markDirty() {
+        markDirty(SYNC_CONTENT);
+    }
+
+    /**
+     * Marks this projector for saving and queues the given fields for syncing. Syncs are sent
+     * by {@link #flushSync()} at the end of the tick, so any number of changes in one tick
+     * results in at most one packet
+     *
+     * @param fields The changed fields, a combination of the {@code SYNC_} flags
+     */
+    public void markDirty(int fields) {
         super.markDirty();
-        if (!world.isClient) {
-            sync();
+        if ((fields & SYNC_CONTENT) != 0) invalidateResolvedProvider();
+        if (world == null || world.isClient) return;
+
+        if ((fields & SYNC_CONTENT) != 0) {
+            updateAreaSnapshot();
+            stackPayloadDirty = true;
+            snapshotPayloadDirty = true;
+        }
+        pendingSync |= fields;
+    }
+
+    /**
+     * Sends the fields changed since the last call to clients, called at the end of every server tick
+     */
+    public void flushSync() {
+        if (pendingSync == 0) return;
+        final int fields = pendingSync;
+        pendingSync = 0;
+
+        final Packet<?> packet;
+        if ((fields & SYNC_CONTENT) != 0) {
+            final PacketByteBuf buf = ProjectorStatePacket.write(this);
+            syncPackets++;
+            syncBytes += buf.readableBytes();
+
+            if (HolographicRendersConfig.logSyncSizes) {
+                final int nbtSize = PacketByteBufs.create().writeNbt(toClientTag(new NbtCompound())).readableBytes();
+                LOGGER.info("Projector at {} synced {} bytes, {} bytes as NBT", pos.toShortString(), buf.readableBytes(), nbtSize);
+            }
+
+            packet = ServerPlayNetworking.createS2CPacket(ProjectorStatePacket.STATE_ID, buf);
+        } else {
+            final PacketByteBuf buf = ProjectorSyncPacket.write(pos, fields, this);
+            syncPackets++;
+            syncBytes += buf.readableBytes();
+
+            packet = ServerPlayNetworking.createS2CPacket(ProjectorSyncPacket.ID, buf);
+        }
+
+        for (ServerPlayerEntity player : PlayerLookup.tracking(this)) {
+            player.networkHandler.sendPacket(packet);
+        }
+    }
+
+    /**
+     * Sends the full state of this projector to a single player, for clients whose copy went out of sync
+     */
+    public void sendState(ServerPlayerEntity player) {
+        final PacketByteBuf buf = ProjectorStatePacket.write(this);
+        syncPackets++;
+        syncBytes += buf.readableBytes();
+
+        player.networkHandler.sendPacket(ServerPlayNetworking.createS2CPacket(ProjectorStatePacket.STATE_ID, buf));
+    }
+
+    /**
+     * Writes the given fields for a partial sync, in the order of their flags
+     */
+    public void writeSyncFields(int fields, PacketByteBuf buf) {
+        if ((fields & SYNC_ALPHA) != 0) buf.writeFloat(alpha);
+        if ((fields & SYNC_LIGHTS) != 0) buf.writeBoolean(lightEnabled);
+        if ((fields & SYNC_LIVE_AREA) != 0) buf.writeBoolean(liveArea);
+    }
+
+    /**
+     * Reads a partial sync written by {@link #writeSyncFields(int, PacketByteBuf)}
+     */
+    public void readSyncFields(int fields, PacketByteBuf buf) {
+        if ((fields & SYNC_ALPHA) != 0) alpha = buf.readFloat();
+        if ((fields & SYNC_LIGHTS) != 0) lightEnabled = buf.readBoolean();
+        if ((fields & SYNC_LIVE_AREA) != 0) liveArea = buf.readBoolean();
+    }
+
+    /**
+     * Writes the full state of this projector for a {@link ProjectorStatePacket}. The
+     * stack and every NBT payload are written once, render data that is just the stack is skipped
+     */
+    public void writeState(PacketByteBuf buf) {
+        buf.writeFloat(alpha);
+        buf.writeByte((lightEnabled ? 1 : 0) | (liveArea ? 2 : 0));
+
+        // Stored payloads are sent as their hash, clients fetch each of them once
+        final NbtCompound stackTag = getItem().writeNbt(new NbtCompound());
+        final String stackPayload = usesPayloadStore() ? getStackPayload() : null;
+        buf.writeBoolean(stackPayload != null);
+        if (stackPayload != null) {
+            stackTag.remove("tag");
+            buf.writeString(stackPayload);
         }
+        ProjectorStatePacket.writePayload(buf, stackTag);
+
+        // Numeric ids are shifted by one, 0 stands for no provider
+        buf.writeVarInt(RenderDataProviderRegistry.getRawId(renderer.getTypeId()) + 1);
+        final boolean stackData = renderer.isStackData(this);
+        buf.writeBoolean(stackData);
+        if (!stackData) ProjectorStatePacket.writePayload(buf, renderer.writeData(this));
+
+        final String snapshotPayload = usesPayloadStore() ? getSnapshotPayload() : null;
+        if (snapshotPayload != null) {
+            buf.writeByte(2);
+            buf.writeString(snapshotPayload);
+            buf.writeVarInt(areaSnapshot == null ? 0 : areaSnapshot.getVersion());
+
+            final AreaSnapshot.Delta changes = getStoredAreaChanges();
+            buf.writeBoolean(changes != null);
+            if (changes != null) changes.write(buf);
+        } else if (areaSnapshot != null) {
+            buf.writeByte(1);
+            ProjectorStatePacket.writePayload(buf, areaSnapshot.toNbt());
+        } else {
+            buf.writeByte(0);
+        }
+    }
+
+    /**
+     * Reads a state written by {@link #writeState(PacketByteBuf)}
+     */
+    public void readState(PacketByteBuf buf) {
+        alpha = buf.readFloat();
+        final byte flags = buf.readByte();
+        lightEnabled = (flags & 1) != 0;
+        liveArea = (flags & 2) != 0;
+        final String stackPayload = buf.readBoolean() ? buf.readString() : null;
+        readStack(ProjectorStatePacket.readPayload(buf), stackPayload);
+
+        final Identifier providerId = RenderDataProviderRegistry.getRemoteId(buf.readVarInt() - 1);
+        applyRenderer(providerId, buf.readBoolean() ? null : ProjectorStatePacket.readPayload(buf));
+
+        final byte snapshotType = buf.readByte();
+        if (snapshotType == 2) {
+            final String snapshotPayload = buf.readString();
+            final int version = buf.readVarInt();
+            readAreaSnapshot(null, snapshotPayload, buf.readBoolean() ? AreaSnapshot.Delta.read(buf) : null, version);
+        } else {
+            readAreaSnapshot(snapshotType == 1 ? ProjectorStatePacket.readPayload(buf) : null, null, null, 0);
+        }
+        invalidateResolvedProvider();
+    }
+
+    /**
+     * @return The number of sync packets this projector sent since it was loaded
+     */
+    public long getSyncPackets() {
+        return syncPackets;
+    }
+
+    /**
+     * @return The payload bytes of all sync packets this projector sent since it was loaded
+     */
+    public long getSyncBytes() {
+        return syncBytes;
     }
 
     @Override
@@ -0,0 +1,83 @@
+package com.mystic.holographicrenders.blocks.projector;
+
+import com.mystic.holographicrenders.network.AreaDeltaPacket;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerBlockEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.PlayerLookup;
+import net.minecraft.block.BlockState;
+import net.minecraft.network.Packet;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.*;
+
+/**
+ * Keeps track of the projectors loaded in each server world and sends their updates at the end of every tick.
+ * Changed projector fields are synced at most once per tick, see {@link ProjectorBlockEntity#flushSync()}
+ * <p>
+ * Block changes inside the areas of live area holograms are recorded as they happen and sent as one
+ * {@link AreaSnapshot.Delta} per projector at most every
+ * {@link com.mystic.holographicrenders.HolographicRendersConfig#areaLiveUpdateInterval} ticks
+ */
+public class ProjectorTracker {
+
+    private static final Map<ServerWorld, Set<ProjectorBlockEntity>> PROJECTORS = new WeakHashMap<>();
+
+    public static void register() {
+        ServerBlockEntityEvents.BLOCK_ENTITY_LOAD.register((blockEntity, world) -> {
+            if (!(blockEntity instanceof ProjectorBlockEntity)) return;
+            PROJECTORS.computeIfAbsent(world, w -> new HashSet<>()).add((ProjectorBlockEntity) blockEntity);
+            ((ProjectorBlockEntity) blockEntity).acquirePayloads();
+        });
+
+        ServerBlockEntityEvents.BLOCK_ENTITY_UNLOAD.register((blockEntity, world) -> {
+            if (!(blockEntity instanceof ProjectorBlockEntity)) return;
+            final Set<ProjectorBlockEntity> projectors = PROJECTORS.get(world);
+            if (projectors != null) projectors.remove(blockEntity);
+        });
+
+        ServerTickEvents.END_WORLD_TICK.register(ProjectorTracker::tick);
+    }
+
+    /**
+     * Called for every block change in a server world
+     *
+     * @param world The world the block changed in
+     * @param pos   The position of the changed block
+     * @param state The new state of the block
+     */
+    public static void onBlockChanged(ServerWorld world, BlockPos pos, BlockState state) {
+        final Set<ProjectorBlockEntity> projectors = PROJECTORS.get(world);
+        if (projectors == null) return;
+
+        for (ProjectorBlockEntity projector : projectors) {
+            projector.recordAreaChange(pos, state);
+        }
+    }
+
+    private static void tick(ServerWorld world) {
+        final Set<ProjectorBlockEntity> projectors = PROJECTORS.get(world);
+        if (projectors == null) return;
+
+        final Iterator<ProjectorBlockEntity> iterator = projectors.iterator();
+        while (iterator.hasNext()) {
+            final ProjectorBlockEntity projector = iterator.next();
+            if (projector.isRemoved()) {
+                iterator.remove();
+                continue;
+            }
+
+            projector.retryAreaSnapshot();
+            projector.flushSync();
+
+            final AreaSnapshot.Delta delta = projector.pollAreaChanges();
+            if (delta == null) continue;
+
+            final Packet<?> packet = AreaDeltaPacket.create(projector.getPos(), delta);
+            for (ServerPlayerEntity player : PlayerLookup.tracking(projector)) {
+                player.networkHandler.sendPacket(packet);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.mystic.holographicrenders.client;
+
+import net.minecraft.client.render.VertexConsumer;
+
+/**
+ * Wraps a {@link VertexConsumer} and multiplies the alpha of every vertex written through it
+ * with the alpha of the hologram currently being emitted
+ */
+public class AlphaVertexConsumer implements VertexConsumer {
+
+    private final VertexConsumer delegate;
+    private final HologramRenderLayer.HologramVertexConsumerProvider provider;
+
+    AlphaVertexConsumer(VertexConsumer delegate, HologramRenderLayer.HologramVertexConsumerProvider provider) {
+        this.delegate = delegate;
+        this.provider = provider;
+    }
+
+    @Override
+    public void vertex(float x, float y, float z, float red, float green, float blue, float alpha, float u, float v, int overlay, int light, float normalX, float normalY, float normalZ) {
+        delegate.vertex(x, y, z, red, green, blue, alpha * provider.getAlpha(), u, v, overlay, light, normalX, normalY, normalZ);
+    }
+
+    @Override
+    public VertexConsumer vertex(double x, double y, double z) {
+        delegate.vertex(x, y, z);
+        return this;
+    }
+
+    @Override
+    public VertexConsumer color(int red, int green, int blue, int alpha) {
+        delegate.color(red, green, blue, (int) (alpha * provider.getAlpha()));
+        return this;
+    }
+
+    @Override
+    public VertexConsumer texture(float u, float v) {
+        delegate.texture(u, v);
+        return this;
+    }
+
+    @Override
+    public VertexConsumer overlay(int u, int v) {
+        delegate.overlay(u, v);
+        return this;
+    }
+
+    @Override
+    public VertexConsumer light(int u, int v) {
+        delegate.light(u, v);
+        return this;
+    }
+
+    @Override
+    public VertexConsumer normal(float x, float y, float z) {
+        delegate.normal(x, y, z);
+        return this;
+    }
+
+    @Override
+    public void next() {
+        delegate.next();
+    }
+}
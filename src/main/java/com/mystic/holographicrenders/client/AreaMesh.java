@@ -0,0 +1,270 @@
+package com.mystic.holographicrenders.client;
+
+import com.mystic.holographicrenders.blocks.projector.AreaSnapshot;
+import com.mystic.holographicrenders.mixin.VertexBufferAccessor;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.client.gl.VertexBuffer;
+import net.minecraft.client.render.RenderLayer;
+import net.minecraft.client.render.VertexFormat;
+import net.minecraft.client.render.VertexFormats;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Matrix4f;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+import org.lwjgl.opengl.GL11;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The mesh of an area hologram. The area is split along chunk section borders into sections of at most
+ * 16x16x16 blocks, which are meshed independently by the {@link AreaMesher} and drawn as soon as they are done
+ * <p>
+ * Vertices are relative to the minimum corner of the area, so all sections are drawn with the same matrix.
+ * Blocks are read from an {@link AreaSnapshot} if one is given, otherwise from the world.
+ * All methods must be called on the render thread
+ */
+public class AreaMesh {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    static final VertexFormat FORMAT = VertexFormats.POSITION_COLOR_TEXTURE_LIGHT_NORMAL;
+
+    private static final RenderLayer[] BLOCK_LAYERS = RenderLayer.getBlockLayers().toArray(new RenderLayer[0]);
+
+    private final World world;
+    private AreaSnapshot snapshot;
+    private final BlockPos min;
+    private final BlockPos max;
+
+    private final Section[] sections;
+    private final Long2ObjectMap<Section> sectionsByPos = new Long2ObjectOpenHashMap<>();
+
+    private int builtSections = 0;
+    private boolean closed = false;
+
+    private Vec3d anchor;
+    private double sortDistance = 0;
+
+    private final long buildStart;
+    private long buildNanos = 0;
+    private int cachedSections = 0;
+    private boolean buildReported = false;
+
+    public AreaMesh(World world, @Nullable AreaSnapshot snapshot, BlockPos min, BlockPos max) {
+        this.world = world;
+        this.snapshot = snapshot;
+        this.min = min;
+        this.max = max;
+        this.anchor = new Vec3d((min.getX() + max.getX() + 1) / 2d, (min.getY() + max.getY() + 1) / 2d, (min.getZ() + max.getZ() + 1) / 2d);
+
+        final int minX = min.getX() >> 4, minY = min.getY() >> 4, minZ = min.getZ() >> 4;
+        final int maxX = max.getX() >> 4, maxY = max.getY() >> 4, maxZ = max.getZ() >> 4;
+
+        this.sections = new Section[(maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1)];
+
+        int index = 0;
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    final BlockPos sectionMin = new BlockPos(Math.max(x << 4, min.getX()), Math.max(y << 4, min.getY()), Math.max(z << 4, min.getZ()));
+                    final BlockPos sectionMax = new BlockPos(Math.min((x << 4) + 15, max.getX()), Math.min((y << 4) + 15, max.getY()), Math.min((z << 4) + 15, max.getZ()));
+
+                    final Section section = new Section(this, sectionMin, sectionMax);
+                    sections[index++] = section;
+                    sectionsByPos.put(ChunkSectionPos.asLong(x, y, z), section);
+                }
+            }
+        }
+
+        this.buildStart = System.nanoTime();
+        for (Section section : sections) AreaMesher.schedule(section);
+    }
+
+    /**
+     * Schedules a rebuild of the given sections, positions outside of this mesh are ignored
+     *
+     * @param sectionPositions The packed positions of the sections to rebuild
+     */
+    public void rebuild(LongSet sectionPositions) {
+        final LongIterator iterator = sectionPositions.iterator();
+        while (iterator.hasNext()) {
+            final Section section = sectionsByPos.get(iterator.nextLong());
+            if (section != null) AreaMesher.schedule(section);
+        }
+    }
+
+    /**
+     * @return {@code true} once at least one section has been built
+     */
+    public boolean canRender() {
+        return builtSections > 0;
+    }
+
+    public int getBuiltSections() {
+        return builtSections;
+    }
+
+    public int getSectionCount() {
+        return sections.length;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public @Nullable AreaSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Replaces the snapshot sections are built from. Sections are not rebuilt by
+     * this, changed ones have to be scheduled through {@link #rebuild(LongSet)}
+     *
+     * @param snapshot The new version of the snapshot
+     */
+    public void setSnapshot(AreaSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Schedules a rebuild of all sections
+     */
+    public void rebuildAll() {
+        for (Section section : sections) AreaMesher.schedule(section);
+    }
+
+    public BlockPos getMin() {
+        return min;
+    }
+
+    public BlockPos getMax() {
+        return max;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Sets the position this mesh was last shown at, pending sections of the meshes
+     * closest to the camera are built first
+     *
+     * @param pos The position of the projector showing this mesh
+     */
+    public void setAnchor(BlockPos pos) {
+        this.anchor = Vec3d.ofCenter(pos);
+    }
+
+    void updateSortDistance(Vec3d camera) {
+        this.sortDistance = anchor.squaredDistanceTo(camera);
+    }
+
+    double getSortDistance() {
+        return sortDistance;
+    }
+
+    /**
+     * Draws all built sections of this mesh
+     *
+     * @param matrix    The transformation of the mesh
+     * @param alpha     The alpha of the hologram
+     * @param solidOnly Whether only the solid layer should be drawn, a cheaper version for distant holograms
+     */
+    public void render(Matrix4f matrix, float alpha, boolean solidOnly) {
+        for (RenderLayer layer : BLOCK_LAYERS) {
+            if (solidOnly && layer != RenderLayer.getSolid()) continue;
+            boolean started = false;
+
+            for (Section section : sections) {
+                final VertexBuffer buffer = section.buffers.get(layer);
+                if (buffer == null) continue;
+
+                if (!started) {
+                    layer.startDrawing();
+                    HologramRenderLayer.beginConstantAlpha(alpha);
+                    started = true;
+                }
+
+                buffer.bind();
+                FORMAT.startDrawing(0L);
+                buffer.draw(matrix, GL11.GL_QUADS);
+            }
+
+            if (started) {
+                FORMAT.endDrawing();
+                VertexBuffer.unbind();
+                HologramRenderLayer.endAction.run();
+                layer.endDrawing();
+            }
+        }
+    }
+
+    /**
+     * @return The amount of vertex memory used by this mesh, in bytes
+     */
+    public long getBytes() {
+        long bytes = 0;
+        for (Section section : sections) {
+            for (VertexBuffer buffer : section.buffers.values()) {
+                bytes += (long) ((VertexBufferAccessor) buffer).getVertexCount() * FORMAT.getVertexSize();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Frees all buffers of this mesh, results of builds that are still running are discarded
+     */
+    public void close() {
+        closed = true;
+        for (Section section : sections) {
+            section.buffers.values().forEach(VertexBuffer::close);
+            section.buffers.clear();
+        }
+    }
+
+    void onSectionBuilt(Section section, long nanos, boolean cached) {
+        buildNanos += nanos;
+        if (cached) cachedSections++;
+        if (!section.built) {
+            section.built = true;
+            builtSections++;
+        }
+
+        if (builtSections == sections.length && !buildReported) {
+            buildReported = true;
+            if (!LOGGER.isDebugEnabled()) return;
+
+            final int volume = (max.getX() - min.getX() + 1) * (max.getY() - min.getY() + 1) * (max.getZ() - min.getZ() + 1);
+            LOGGER.debug(String.format("Meshed area hologram of %d blocks in %d sections in %.1fms (%.1fms meshing time on %d threads, %d sections from disk cache)",
+                    volume, sections.length, (System.nanoTime() - buildStart) / 1e6, buildNanos / 1e6, AreaMesher.getThreadCount(), cachedSections));
+        }
+    }
+
+    public static class Section {
+
+        final AreaMesh mesh;
+        final BlockPos min;
+        final BlockPos max;
+
+        final Map<RenderLayer, VertexBuffer> buffers = new HashMap<>();
+
+        int version = 0;
+        boolean queued = false;
+        boolean built = false;
+
+        private Section(AreaMesh mesh, BlockPos min, BlockPos max) {
+            this.mesh = mesh;
+            this.min = min;
+            this.max = max;
+        }
+    }
+}
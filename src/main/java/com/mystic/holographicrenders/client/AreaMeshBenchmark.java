@@ -0,0 +1,122 @@
+package com.mystic.holographicrenders.client;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mystic.holographicrenders.HolographicRendersConfig;
+import com.mystic.holographicrenders.blocks.projector.AreaSnapshot;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.render.chunk.BlockBufferBuilderStorage;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.BlockRenderView;
+import net.minecraft.world.World;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures how long area holograms take to mesh depending on their volume and the number of mesher threads.
+ * Meshing needs baked block models, so this runs in the client once a world is joined, see
+ * {@link HolographicRendersConfig#areaMeshBenchmark}. The blocks around the player are captured into snapshots
+ * and split into sections like {@link AreaMesh} does, each section is meshed through {@link AreaMesher} without
+ * uploading the result. Every combination is run several times and the fastest time is logged
+ */
+public class AreaMeshBenchmark {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final int[] SIZES = {16, 32, 64};
+    private static final int RUNS = 5;
+
+    private static boolean started = false;
+
+    /**
+     * Starts the benchmark once all areas around the player are loaded, called at the end of every client tick
+     */
+    public static void tick(MinecraftClient client) {
+        if (!HolographicRendersConfig.areaMeshBenchmark || started || client.player == null || client.world == null) return;
+        if (client.world.getTime() % 20 != 0) return;
+
+        final BlockPos center = client.player.getBlockPos();
+        final List<AreaSnapshot> snapshots = new ArrayList<>();
+        for (int size : SIZES) {
+            final int minY = Math.max(0, Math.min(center.getY() - size / 2, client.world.getHeight() - size));
+            final BlockPos min = new BlockPos(center.getX() - size / 2, minY, center.getZ() - size / 2);
+
+            final AreaSnapshot snapshot = AreaSnapshot.capture(client.world, min, min.add(size - 1, size - 1, size - 1));
+            if (snapshot == null) return;
+            snapshots.add(snapshot);
+        }
+
+        started = true;
+        final World world = client.world;
+        final Thread thread = new Thread(() -> run(world, snapshots), "Hologram Area Mesh Benchmark");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static void run(World world, List<AreaSnapshot> snapshots) {
+        final int maxThreads = AreaMesher.getThreadCount();
+        LOGGER.info("Benchmarking area meshing with up to {} threads, fastest of {} runs", maxThreads, RUNS);
+
+        try {
+            for (AreaSnapshot snapshot : snapshots) {
+                final int volume = AreaSnapshot.getVolume(snapshot.getMin(), snapshot.getMax());
+                for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+                    final long nanos = measure(world, snapshot, threads);
+                    LOGGER.info("Meshed {} blocks with {} threads in {} ms", volume, threads, String.format("%.2f", nanos / 1000000d));
+                    if (threads == maxThreads) break;
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.error("Area mesh benchmark failed", e);
+        }
+    }
+
+    private static long measure(World world, AreaSnapshot snapshot, int threads) throws Exception {
+        final BlockPos min = snapshot.getMin();
+        final BlockPos max = snapshot.getMax();
+        final BlockRenderView view = new ClippedBlockRenderView(new SnapshotBlockRenderView(snapshot, world), min.add(-1, -1, -1), max.add(1, 1, 1));
+
+        final List<BlockPos[]> sections = new ArrayList<>();
+        for (int x = min.getX() >> 4; x <= max.getX() >> 4; x++) {
+            for (int y = min.getY() >> 4; y <= max.getY() >> 4; y++) {
+                for (int z = min.getZ() >> 4; z <= max.getZ() >> 4; z++) {
+                    sections.add(new BlockPos[]{
+                            new BlockPos(Math.max(x << 4, min.getX()), Math.max(y << 4, min.getY()), Math.max(z << 4, min.getZ())),
+                            new BlockPos(Math.min((x << 4) + 15, max.getX()), Math.min((y << 4) + 15, max.getY()), Math.min((z << 4) + 15, max.getZ()))
+                    });
+                }
+            }
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("Hologram Area Mesh Benchmark #%d").setDaemon(true).build());
+        final ThreadLocal<BlockBufferBuilderStorage> storages = ThreadLocal.withInitial(BlockBufferBuilderStorage::new);
+
+        try {
+            long fastest = Long.MAX_VALUE;
+            for (int run = 0; run < RUNS; run++) {
+                final List<Future<?>> builds = new ArrayList<>(sections.size());
+                final long start = System.nanoTime();
+
+                for (BlockPos[] section : sections) {
+                    builds.add(executor.submit(() -> {
+                        final BlockBufferBuilderStorage storage = storages.get();
+                        AreaMesher.build(min, max, section[0], section[1], view, storage);
+                        storage.reset();
+                    }));
+                }
+                for (Future<?> build : builds) build.get();
+
+                fastest = Math.min(fastest, System.nanoTime() - start);
+            }
+            return fastest;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
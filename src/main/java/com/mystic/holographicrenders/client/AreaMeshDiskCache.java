@@ -0,0 +1,273 @@
+package com.mystic.holographicrenders.client;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.mystic.holographicrenders.HolographicRenders;
+import com.mystic.holographicrenders.HolographicRendersConfig;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.color.world.BiomeColors;
+import net.minecraft.client.render.RenderLayer;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.BlockRenderView;
+import net.minecraft.world.LightType;
+import net.minecraft.world.World;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Persistent cache for the vertex data of built area mesh sections, so rejoining a world with unchanged areas
+ * skips meshing. Entries are stored per dimension and 512 block region and named after a hash of everything the
+ * mesh depends on: the block states and light levels around the section, the biome colors inside it, the bounds of
+ * the area, the smooth lighting setting and the enabled resource packs. Cached data is read through memory mapped
+ * files and uploaded as is
+ * <p>
+ * The cache is kept within {@link HolographicRendersConfig#areaMeshDiskCacheSize}, deleting the least recently
+ * used entries first. All methods are safe to call from the mesher threads
+ */
+public class AreaMeshDiskCache {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final int MAGIC = 0x484D4553;
+    private static final int FORMAT_VERSION = 3;
+
+    private static final Path CACHE_DIR = FabricLoader.getInstance().getGameDir().resolve(HolographicRenders.MOD_ID).resolve("mesh_cache");
+    private static final List<RenderLayer> BLOCK_LAYERS = RenderLayer.getBlockLayers();
+
+    private static final Map<BlockState, Long> STATE_HASHES = new ConcurrentHashMap<>();
+
+    private static volatile long resourceHash = 0;
+    private static long currentSize = -1;
+
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+
+    /**
+     * Hashes the blocks and light levels a section mesh is built from, including the one block border
+     * the block renderer reads for culling and smooth lighting, and the grass, foliage and water colors
+     * of its blocks
+     *
+     * @param view    The view the section would be meshed from
+     * @param section The section to hash
+     * @return The key of the section in this cache
+     */
+    public static String computeKey(BlockRenderView view, AreaMesh.Section section) {
+        final Hasher hasher = Hashing.murmur3_128().newHasher();
+        hasher.putInt(FORMAT_VERSION);
+        hasher.putLong(resourceHash);
+        hasher.putBoolean(MinecraftClient.isAmbientOcclusionEnabled());
+        hasher.putLong(section.mesh.getMin().asLong()).putLong(section.mesh.getMax().asLong());
+        hasher.putLong(section.min.asLong()).putLong(section.max.asLong());
+
+        for (BlockPos pos : BlockPos.iterate(section.min.add(-1, -1, -1), section.max.add(1, 1, 1))) {
+            // Raw state ids depend on the server, the string form of a state does not
+            final BlockState state = view.getBlockState(pos);
+            hasher.putLong(STATE_HASHES.computeIfAbsent(state, s -> Hashing.murmur3_128().hashUnencodedChars(s.toString()).asLong()));
+            hasher.putByte((byte) (view.getLightLevel(LightType.BLOCK, pos) << 4 | view.getLightLevel(LightType.SKY, pos)));
+        }
+
+        // Biome colors are the same for a whole column
+        final BlockPos.Mutable column = new BlockPos.Mutable();
+        for (int x = section.min.getX(); x <= section.max.getX(); x++) {
+            for (int z = section.min.getZ(); z <= section.max.getZ(); z++) {
+                column.set(x, section.min.getY(), z);
+                hasher.putInt(view.getColor(column, BiomeColors.GRASS_COLOR));
+                hasher.putInt(view.getColor(column, BiomeColors.FOLIAGE_COLOR));
+                hasher.putInt(view.getColor(column, BiomeColors.WATER_COLOR));
+            }
+        }
+
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Loads the cached vertex data of a section
+     *
+     * @param world   The world of the section
+     * @param section The section to load
+     * @param key     The key obtained from {@link #computeKey(BlockRenderView, AreaMesh.Section)}
+     * @return The vertex data of each layer, or {@code null} if the section is not cached
+     */
+    public static @Nullable Map<RenderLayer, ByteBuffer> load(World world, AreaMesh.Section section, String key) {
+        final Path file = getPath(world, section, key);
+        if (!Files.exists(file)) {
+            MISSES.incrementAndGet();
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.nativeOrder());
+
+            if (mapped.getInt() != MAGIC || mapped.getInt() != FORMAT_VERSION) throw new IOException("Invalid header");
+
+            final Map<RenderLayer, ByteBuffer> layers = new HashMap<>();
+            final int layerCount = mapped.getInt();
+            for (int i = 0; i < layerCount; i++) {
+                final RenderLayer layer = BLOCK_LAYERS.get(mapped.getInt());
+                final int length = mapped.getInt();
+
+                final ByteBuffer data = mapped.slice();
+                data.limit(length);
+                layers.put(layer, data.order(ByteOrder.nativeOrder()));
+                mapped.position(mapped.position() + length);
+            }
+
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            HITS.incrementAndGet();
+            return layers;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Discarding corrupt area mesh cache entry {}: {}", file, e.toString());
+            delete(file);
+            MISSES.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Stores the vertex data of a freshly built section. The buffers are read from
+     * their current position to their limit, which is left unchanged
+     *
+     * @param world   The world of the section
+     * @param section The built section
+     * @param key     The key obtained from {@link #computeKey(BlockRenderView, AreaMesh.Section)}
+     * @param layers  The vertex data of each layer
+     */
+    public static void store(World world, AreaMesh.Section section, String key, Map<RenderLayer, ByteBuffer> layers) {
+        final Path file = getPath(world, section, key);
+        final Path temp = file.resolveSibling(key + "." + Thread.currentThread().getId() + ".tmp");
+
+        int size = 12;
+        for (Map.Entry<RenderLayer, ByteBuffer> entry : layers.entrySet()) size += 8 + entry.getValue().remaining();
+
+        final ByteBuffer header = ByteBuffer.allocate(12).order(ByteOrder.nativeOrder());
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(layers.size());
+
+        try {
+            Files.createDirectories(file.getParent());
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                header.flip();
+                channel.write(header);
+
+                final ByteBuffer layerHeader = ByteBuffer.allocate(8).order(ByteOrder.nativeOrder());
+                for (Map.Entry<RenderLayer, ByteBuffer> entry : layers.entrySet()) {
+                    layerHeader.clear();
+                    final int length = entry.getValue().remaining();
+                    layerHeader.putInt(BLOCK_LAYERS.indexOf(entry.getKey())).putInt(length).flip();
+                    channel.write(layerHeader);
+
+                    final ByteBuffer data = entry.getValue().duplicate();
+                    data.limit(data.position() + length);
+                    while (data.hasRemaining()) channel.write(data);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOGGER.warn("Could not write area mesh cache entry {}: {}", file, e.toString());
+            delete(temp);
+            return;
+        }
+
+        addSize(size);
+    }
+
+    /**
+     * Called after resources were reloaded, meshes built with different resource packs are not reused
+     */
+    public static void onResourcesReloaded() {
+        final Hasher hasher = Hashing.murmur3_128().newHasher();
+        for (String pack : MinecraftClient.getInstance().getResourcePackManager().getEnabledNames()) {
+            hasher.putUnencodedChars(pack).putByte((byte) 0);
+        }
+        resourceHash = hasher.hash().asLong();
+    }
+
+    private static synchronized void addSize(long size) {
+        if (currentSize < 0) currentSize = computeSize();
+        currentSize += size;
+
+        if (currentSize > HolographicRendersConfig.areaMeshDiskCacheSize) evict();
+    }
+
+    private static long computeSize() {
+        long size = 0;
+        for (Path file : listEntries()) {
+            try {
+                size += Files.size(file);
+            } catch (IOException ignored) {}
+        }
+        return size;
+    }
+
+    private static void evict() {
+        final List<Path> entries = listEntries();
+        final Map<Path, FileTime> accessTimes = new HashMap<>();
+        for (Path entry : entries) {
+            try {
+                accessTimes.put(entry, Files.getLastModifiedTime(entry));
+            } catch (IOException e) {
+                accessTimes.put(entry, FileTime.fromMillis(0));
+            }
+        }
+        entries.sort(Comparator.comparing(accessTimes::get));
+
+        // Evict down to 90% of the limit, so the directory is not walked again after every stored section
+        final long target = HolographicRendersConfig.areaMeshDiskCacheSize / 10 * 9;
+        currentSize = computeSize();
+        for (Path entry : entries) {
+            if (currentSize <= target) break;
+            try {
+                currentSize -= Files.size(entry);
+            } catch (IOException ignored) {}
+            delete(entry);
+        }
+    }
+
+    private static List<Path> listEntries() {
+        final List<Path> entries = new ArrayList<>();
+        if (!Files.exists(CACHE_DIR)) return entries;
+
+        try (Stream<Path> files = Files.walk(CACHE_DIR)) {
+            files.filter(path -> path.toString().endsWith(".mesh")).forEach(entries::add);
+        } catch (IOException e) {
+            LOGGER.warn("Could not list area mesh cache", e);
+        }
+        return entries;
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {}
+    }
+
+    private static Path getPath(World world, AreaMesh.Section section, String key) {
+        final Identifier dimension = world.getRegistryKey().getValue();
+        final String region = (section.min.getX() >> 9) + "." + (section.min.getZ() >> 9);
+        return CACHE_DIR.resolve(dimension.getNamespace()).resolve(dimension.getPath()).resolve(region).resolve(key + ".mesh");
+    }
+
+    public static long getHits() {
+        return HITS.get();
+    }
+
+    public static long getMisses() {
+        return MISSES.get();
+    }
+}
@@ -0,0 +1,391 @@
+package com.mystic.holographicrenders.client;
+
+import com.mystic.holographicrenders.HolographicRendersConfig;
+import com.mystic.holographicrenders.blocks.projector.AreaSnapshot;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Matrix4f;
+import net.minecraft.util.registry.RegistryKey;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Owns the {@link AreaMesh} instances behind area holograms. Meshes are keyed by dimension, the
+ * normalized corners of their area and the id of the snapshot they show, so all projectors showing the same area share a single mesh
+ * <p>
+ * Entries are reference counted by the providers using them and their GPU buffers are freed as soon
+ * as the last reference is released. All meshes together are kept within
+ * {@link HolographicRendersConfig#areaMeshBudget}, freeing the least recently drawn meshes first.
+ * Freed meshes that are still referenced are built again the next time they are drawn
+ * <p>
+ * Meshes without a snapshot are only rebuilt when blocks inside their area change on the client. Changed blocks mark their
+ * section dirty, and those sections are rebuilt once no further changes arrived for {@link #REBUILD_DELAY} ticks.
+ * Meshes of snapshots are rebuilt the same way when the server sends changes to a live snapshot
+ */
+public class AreaMeshRegistry {
+
+    private static final long PIN_DURATION = 1000;
+    private static final long BUDGET_CHECK_INTERVAL = 1000;
+    private static final int REBUILD_DELAY = 10;
+
+    private static final Map<AreaKey, Handle> MESHES = new HashMap<>();
+
+    /**
+     * Meshes of the blocks loaded in the world, by the chunk sections their area overlaps, so
+     * a block change only has to look at the meshes of its own section
+     */
+    private static final Long2ObjectMap<List<Handle>> WORLD_MESHES_BY_SECTION = new Long2ObjectOpenHashMap<>();
+
+    private static long lastBudgetCheck = 0;
+    private static long currentBytes = 0;
+    private static long meshBuilds = 0;
+    private static long evictions = 0;
+    private static long rebuilds = 0;
+    private static int ticks = 0;
+
+    /**
+     * Acquires a reference to the mesh of the given area, creating
+     * the entry if no projector currently shows the same area
+     *
+     * @param world    The world the area is in
+     * @param snapshot The snapshot of the area to mesh, or {@code null} to mesh the blocks loaded in the world
+     * @param start    One corner of the area
+     * @param end      The opposite corner of the area
+     * @return A handle which must be given back to {@link #release(Handle)} once it's no longer used
+     */
+    public static Handle acquire(World world, @Nullable AreaSnapshot snapshot, BlockPos start, BlockPos end) {
+        final AreaKey key = new AreaKey(world.getRegistryKey(), snapshot == null ? null : snapshot.getId(), start, end);
+
+        Handle handle = MESHES.get(key);
+        if (handle == null) {
+            handle = new Handle(key);
+            MESHES.put(key, handle);
+            if (key.snapshotId == null) index(handle);
+        }
+
+        if (snapshot != null) handle.updateSnapshot(snapshot, null);
+
+        handle.references++;
+        return handle;
+    }
+
+    /**
+     * Gives back a reference obtained from {@link #acquire(World, AreaSnapshot, BlockPos, BlockPos)}, freeing
+     * the mesh if this was the last one
+     *
+     * @param handle The handle to release
+     */
+    public static void release(Handle handle) {
+        if (handle.references <= 0) return;
+        if (--handle.references > 0) return;
+
+        if (MESHES.get(handle.key) == handle) {
+            MESHES.remove(handle.key);
+            if (handle.key.snapshotId == null) unindex(handle);
+        }
+        handle.free();
+    }
+
+    /**
+     * Frees all meshes, used when leaving a world. Handles still held by providers
+     * stay usable and build their mesh again when drawn
+     */
+    public static void clear() {
+        MESHES.values().forEach(Handle::free);
+        MESHES.clear();
+        WORLD_MESHES_BY_SECTION.clear();
+        currentBytes = 0;
+    }
+
+    private static void index(Handle handle) {
+        final AreaKey key = handle.key;
+        for (int x = key.min.getX() >> 4; x <= key.max.getX() >> 4; x++) {
+            for (int y = key.min.getY() >> 4; y <= key.max.getY() >> 4; y++) {
+                for (int z = key.min.getZ() >> 4; z <= key.max.getZ() >> 4; z++) {
+                    final long section = ChunkSectionPos.asLong(x, y, z);
+                    List<Handle> handles = WORLD_MESHES_BY_SECTION.get(section);
+                    if (handles == null) {
+                        handles = new ArrayList<>(1);
+                        WORLD_MESHES_BY_SECTION.put(section, handles);
+                    }
+                    handles.add(handle);
+                }
+            }
+        }
+    }
+
+    private static void unindex(Handle handle) {
+        final AreaKey key = handle.key;
+        for (int x = key.min.getX() >> 4; x <= key.max.getX() >> 4; x++) {
+            for (int y = key.min.getY() >> 4; y <= key.max.getY() >> 4; y++) {
+                for (int z = key.min.getZ() >> 4; z <= key.max.getZ() >> 4; z++) {
+                    final long section = ChunkSectionPos.asLong(x, y, z);
+                    final List<Handle> handles = WORLD_MESHES_BY_SECTION.get(section);
+                    if (handles == null) continue;
+                    handles.remove(handle);
+                    if (handles.isEmpty()) WORLD_MESHES_BY_SECTION.remove(section);
+                }
+            }
+        }
+    }
+
+    /**
+     * Called for every block change in the client world, marks the section of
+     * the changed block dirty in all meshes containing it
+     *
+     * @param world The world the block changed in
+     * @param pos   The position of the changed block
+     */
+    public static void onBlockChanged(World world, BlockPos pos) {
+        final List<Handle> handles = WORLD_MESHES_BY_SECTION.get(ChunkSectionPos.asLong(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4));
+        if (handles == null) return;
+
+        final RegistryKey<World> dimension = world.getRegistryKey();
+        for (int i = 0; i < handles.size(); i++) {
+            final Handle handle = handles.get(i);
+            if (!handle.key.dimension.equals(dimension) || !handle.key.contains(pos.getX(), pos.getY(), pos.getZ())) continue;
+            handle.markDirtyAround(pos);
+        }
+    }
+
+    /**
+     * Called when a delta from the server has been applied to a live snapshot,
+     * marks the sections of all changed blocks dirty in the meshes of that snapshot
+     *
+     * @param world    The world of the projector
+     * @param snapshot The snapshot after the delta has been applied
+     * @param delta    The applied delta
+     */
+    public static void onSnapshotDelta(World world, AreaSnapshot snapshot, AreaSnapshot.Delta delta) {
+        for (Handle handle : MESHES.values()) {
+            if (!world.getRegistryKey().equals(handle.key.dimension)) continue;
+            if (handle.key.snapshotId == null || handle.key.snapshotId != snapshot.getId()) continue;
+            handle.updateSnapshot(snapshot, delta);
+        }
+    }
+
+    /**
+     * Called when a chunk is loaded on the client, marks all sections of the chunk dirty that are part of a mesh,
+     * as meshes built before the chunk arrived are missing its blocks
+     *
+     * @param world The world the chunk was loaded into
+     * @param pos   The position of the loaded chunk
+     */
+    public static void onChunkLoaded(World world, ChunkPos pos) {
+        for (Handle handle : MESHES.values()) {
+            final AreaKey key = handle.key;
+            if (key.snapshotId != null || !key.dimension.equals(world.getRegistryKey())) continue;
+            if (pos.getEndX() < key.min.getX() || pos.getStartX() > key.max.getX()) continue;
+            if (pos.getEndZ() < key.min.getZ() || pos.getStartZ() > key.max.getZ()) continue;
+
+            for (int sectionY = key.min.getY() >> 4; sectionY <= key.max.getY() >> 4; sectionY++) {
+                handle.markDirty(ChunkSectionPos.asLong(pos.x, sectionY, pos.z));
+            }
+        }
+    }
+
+    /**
+     * Called at the end of every client tick, rebuilds dirty sections whose changes have settled
+     */
+    public static void tick() {
+        ticks++;
+        for (Handle handle : MESHES.values()) {
+            if (handle.dirtySections.isEmpty() || ticks - handle.lastChangeTick < REBUILD_DELAY) continue;
+
+            if (handle.mesh != null) {
+                handle.mesh.rebuild(handle.dirtySections);
+                rebuilds += handle.dirtySections.size();
+            }
+            handle.dirtySections.clear();
+        }
+    }
+
+    private static void enforceBudget() {
+        final long now = System.currentTimeMillis();
+        if (now - lastBudgetCheck < BUDGET_CHECK_INTERVAL) return;
+        lastBudgetCheck = now;
+
+        currentBytes = 0;
+        for (Handle handle : MESHES.values()) {
+            currentBytes += handle.getBytes();
+        }
+
+        if (currentBytes <= HolographicRendersConfig.areaMeshBudget) return;
+
+        final List<Handle> candidates = new ArrayList<>(MESHES.values());
+        candidates.sort(Comparator.comparingLong(handle -> handle.lastDrawn));
+
+        for (Handle handle : candidates) {
+            if (currentBytes <= HolographicRendersConfig.areaMeshBudget) break;
+            if (handle.mesh == null || now - handle.lastDrawn < PIN_DURATION) continue;
+
+            currentBytes -= handle.getBytes();
+            handle.free();
+            evictions++;
+        }
+    }
+
+    public static int size() {
+        return MESHES.size();
+    }
+
+    public static long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    public static long getMeshBuilds() {
+        return meshBuilds;
+    }
+
+    public static long getEvictions() {
+        return evictions;
+    }
+
+    public static long getRebuilds() {
+        return rebuilds;
+    }
+
+    public static class Handle {
+
+        private final AreaKey key;
+        private int references = 0;
+
+        private AreaMesh mesh = null;
+        private World world = null;
+        private AreaSnapshot snapshot = null;
+        private long lastDrawn = 0;
+
+        private final LongSet dirtySections = new LongOpenHashSet();
+        private int lastChangeTick = 0;
+
+        private Handle(AreaKey key) {
+            this.key = key;
+        }
+
+        /**
+         * Gets the mesh of this entry, building it if it has not been built yet, was freed or
+         * belongs to a different world instance
+         *
+         * @param world The world to mesh the area from
+         * @return The mesh, which may still be building
+         */
+        public AreaMesh getMesh(World world) {
+            if (mesh == null || this.world != world) {
+                free();
+                this.world = world;
+                this.dirtySections.clear();
+                this.mesh = new AreaMesh(world, snapshot, key.min, key.max);
+                meshBuilds++;
+            }
+
+            return mesh;
+        }
+
+        /**
+         * Draws the mesh of this entry, which must be ready
+         *
+         * @param matrix    The transformation of the mesh
+         * @param alpha     The alpha of the hologram
+         * @param solidOnly Whether only the solid layer should be drawn, see {@link AreaMesh#render(Matrix4f, float, boolean)}
+         */
+        public void render(Matrix4f matrix, float alpha, boolean solidOnly) {
+            lastDrawn = System.currentTimeMillis();
+            mesh.render(matrix, alpha, solidOnly);
+            enforceBudget();
+        }
+
+        /**
+         * Moves this entry to a newer version of its snapshot, older versions are ignored
+         *
+         * @param snapshot The new version of the snapshot
+         * @param delta    The delta that lead to this version, or {@code null} to rebuild the whole mesh
+         */
+        public void updateSnapshot(AreaSnapshot snapshot, @Nullable AreaSnapshot.Delta delta) {
+            final AreaSnapshot previous = this.snapshot;
+            if (previous != null && snapshot.getVersion() <= previous.getVersion()) return;
+
+            this.snapshot = snapshot;
+            if (mesh == null) return;
+            mesh.setSnapshot(snapshot);
+
+            if (delta == null || previous == null || snapshot.getVersion() != previous.getVersion() + 1) {
+                mesh.rebuildAll();
+                return;
+            }
+
+            for (int index : delta.getIndices()) {
+                markDirtyAround(snapshot.getPos(index));
+            }
+        }
+
+        /**
+         * Marks the section of the given block dirty, along with the neighbouring
+         * sections whose faces next to the block may change
+         */
+        private void markDirtyAround(BlockPos pos) {
+            for (int x = (pos.getX() - 1) >> 4; x <= (pos.getX() + 1) >> 4; x++) {
+                for (int y = (pos.getY() - 1) >> 4; y <= (pos.getY() + 1) >> 4; y++) {
+                    for (int z = (pos.getZ() - 1) >> 4; z <= (pos.getZ() + 1) >> 4; z++) {
+                        markDirty(ChunkSectionPos.asLong(x, y, z));
+                    }
+                }
+            }
+        }
+
+        private void markDirty(long sectionPos) {
+            if (mesh == null) return;
+            dirtySections.add(sectionPos);
+            lastChangeTick = ticks;
+        }
+
+        private long getBytes() {
+            return mesh == null ? 0 : mesh.getBytes();
+        }
+
+        private void free() {
+            if (mesh == null) return;
+            mesh.close();
+            mesh = null;
+            world = null;
+        }
+    }
+
+    private static class AreaKey {
+
+        private final RegistryKey<World> dimension;
+        private final Long snapshotId;
+        private final BlockPos min;
+        private final BlockPos max;
+
+        private AreaKey(RegistryKey<World> dimension, @Nullable Long snapshotId, BlockPos start, BlockPos end) {
+            this.dimension = dimension;
+            this.snapshotId = snapshotId;
+            this.min = new BlockPos(Math.min(start.getX(), end.getX()), Math.min(start.getY(), end.getY()), Math.min(start.getZ(), end.getZ()));
+            this.max = new BlockPos(Math.max(start.getX(), end.getX()), Math.max(start.getY(), end.getY()), Math.max(start.getZ(), end.getZ()));
+        }
+
+        private boolean contains(int x, int y, int z) {
+            return x >= min.getX() && x <= max.getX() && y >= min.getY() && y <= max.getY() && z >= min.getZ() && z <= max.getZ();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof AreaKey)) return false;
+            final AreaKey other = (AreaKey) o;
+            return dimension.equals(other.dimension) && min.equals(other.min) && max.equals(other.max) && Objects.equals(snapshotId, other.snapshotId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dimension, snapshotId, min, max);
+        }
+    }
+}
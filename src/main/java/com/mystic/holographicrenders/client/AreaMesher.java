@@ -0,0 +1,303 @@
+package com.mystic.holographicrenders.client;
+
+import com.glisco.worldmesher.renderers.WorldMesherBlockModelRenderer;
+import com.glisco.worldmesher.renderers.WorldMesherFluidRenderer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mystic.holographicrenders.HolographicRendersConfig;
+import com.mystic.holographicrenders.mixin.VertexBufferAccessor;
+import net.minecraft.block.BlockRenderType;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gl.VertexBuffer;
+import net.minecraft.client.render.*;
+import net.minecraft.client.render.block.BlockRenderManager;
+import net.minecraft.client.render.chunk.BlockBufferBuilderStorage;
+import net.minecraft.client.render.chunk.ChunkRendererRegion;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.BlockRenderView;
+import net.minecraft.world.World;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Builds the sections of {@link AreaMesh}es on a pool of worker threads. Block states are captured into a
+ * {@link ChunkRendererRegion} on the render thread, the same way vanilla prepares chunk rebuilds, unless the
+ * mesh has an immutable snapshot to read from. Meshing happens on the workers and the finished buffers are
+ * uploaded on the render thread again. Sections whose blocks did not change since they were last built are
+ * loaded from the {@link AreaMeshDiskCache} instead of being meshed
+ * <p>
+ * Each build holds one {@link BlockBufferBuilderStorage} until its result has been uploaded. At most
+ * {@link HolographicRendersConfig#areaMaxConcurrentBuilds} builds are in flight at once, pending sections of holograms
+ * closest to the camera are built first and uploads stop once {@link HolographicRendersConfig#areaUploadBudget}
+ * milliseconds have been spent in a frame, so loading many large holograms does not cause hitches
+ */
+public class AreaMesher {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final int THREADS = HolographicRendersConfig.areaMeshThreads > 0
+            ? HolographicRendersConfig.areaMeshThreads
+            : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    private static final int MAX_CONCURRENT_BUILDS = HolographicRendersConfig.areaMaxConcurrentBuilds > 0
+            ? HolographicRendersConfig.areaMaxConcurrentBuilds
+            : THREADS;
+
+    private static final ExecutorService WORKERS = Executors.newFixedThreadPool(THREADS,
+            new ThreadFactoryBuilder().setNameFormat("Hologram Area Mesher #%d").setDaemon(true).build());
+
+    private static final ThreadLocal<WorldMesherBlockModelRenderer> BLOCK_RENDERER = ThreadLocal.withInitial(WorldMesherBlockModelRenderer::new);
+    private static final ThreadLocal<WorldMesherFluidRenderer> FLUID_RENDERER = ThreadLocal.withInitial(() -> {
+        final WorldMesherFluidRenderer renderer = new WorldMesherFluidRenderer();
+        renderer.onResourceReload();
+        return renderer;
+    });
+
+    private static final List<AreaMesh.Section> PENDING = new ArrayList<>();
+    private static final Queue<BuildResult> COMPLETED = new ConcurrentLinkedQueue<>();
+    private static final ArrayDeque<BlockBufferBuilderStorage> FREE_STORAGES = new ArrayDeque<>();
+    private static int runningBuilds = 0;
+
+    /**
+     * Queues the given section for building. Sections that are already building are built again
+     * once the running build is done, its result is discarded
+     *
+     * @param section The section to build
+     */
+    static void schedule(AreaMesh.Section section) {
+        section.version++;
+        if (section.queued) return;
+
+        section.queued = true;
+        PENDING.add(section);
+    }
+
+    /**
+     * Uploads finished sections and starts building pending ones, called once per frame on the render thread
+     */
+    public static void update() {
+        RenderSystem.assertThread(RenderSystem::isOnRenderThread);
+
+        final long uploadDeadline = System.nanoTime() + (long) (HolographicRendersConfig.areaUploadBudget * 1000000);
+        BuildResult result;
+        while ((result = COMPLETED.poll()) != null) {
+            if (result.storage != null) runningBuilds--;
+            upload(result);
+            if (System.nanoTime() > uploadDeadline) break;
+        }
+
+        if (PENDING.isEmpty()) return;
+
+        final Vec3d camera = MinecraftClient.getInstance().gameRenderer.getCamera().getPos();
+        for (AreaMesh.Section section : PENDING) {
+            section.mesh.updateSortDistance(camera);
+        }
+        PENDING.sort(Comparator.comparingDouble(section -> section.mesh.getSortDistance()));
+
+        int scheduled = 0;
+        while (scheduled < PENDING.size() && runningBuilds < MAX_CONCURRENT_BUILDS) {
+            final AreaMesh.Section section = PENDING.get(scheduled++);
+            section.queued = false;
+            if (section.mesh.isClosed()) continue;
+
+            final BlockRenderView source;
+            if (section.mesh.getSnapshot() != null) {
+                source = new SnapshotBlockRenderView(section.mesh.getSnapshot(), section.mesh.getWorld());
+            } else {
+                source = ChunkRendererRegion.create(section.mesh.getWorld(), section.min.add(-1, -1, -1), section.max.add(1, 1, 1), 1);
+                if (source == null) {
+                    upload(new BuildResult(section, section.version, null, Collections.emptyMap(), false, 0));
+                    continue;
+                }
+            }
+
+            final BlockRenderView view = new ClippedBlockRenderView(source, section.min.add(-1, -1, -1), section.max.add(1, 1, 1));
+            final BlockBufferBuilderStorage storage = claimStorage();
+            final World world = section.mesh.getWorld();
+            final int version = section.version;
+            runningBuilds++;
+
+            WORKERS.execute(() -> {
+                final long start = System.nanoTime();
+                Map<RenderLayer, ByteBuffer> layers = null;
+                boolean cached = false;
+                try {
+                    final String key = HolographicRendersConfig.areaMeshDiskCacheSize > 0 ? AreaMeshDiskCache.computeKey(view, section) : null;
+                    if (key != null) layers = AreaMeshDiskCache.load(world, section, key);
+
+                    if (layers != null) {
+                        cached = true;
+                    } else {
+                        layers = build(section.mesh.getMin(), section.mesh.getMax(), section.min, section.max, view, storage);
+                        if (key != null) AreaMeshDiskCache.store(world, section, key, layers);
+                    }
+                } catch (Throwable e) {
+                    LOGGER.error("Failed to mesh area hologram section at {}", section.min, e);
+                    layers = Collections.emptyMap();
+                }
+                COMPLETED.add(new BuildResult(section, version, storage, layers, cached, System.nanoTime() - start));
+            });
+        }
+        PENDING.subList(0, scheduled).clear();
+    }
+
+    private static BlockBufferBuilderStorage claimStorage() {
+        // Finished builds still hold their storage until they are uploaded, so there can be more storages than running builds
+        return FREE_STORAGES.isEmpty() ? new BlockBufferBuilderStorage() : FREE_STORAGES.poll();
+    }
+
+    /**
+     * Meshes the blocks between {@code min} and {@code max}, relative to the minimum corner of the whole area.
+     * The returned data is only valid until the storage is reset
+     *
+     * @param origin  The minimum corner of the area
+     * @param areaMax The maximum corner of the area, faces on the edges of the area are never culled
+     */
+    static Map<RenderLayer, ByteBuffer> build(BlockPos origin, BlockPos areaMax, BlockPos min, BlockPos max, BlockRenderView view, BlockBufferBuilderStorage storage) {
+        final BlockRenderManager blockRenderManager = MinecraftClient.getInstance().getBlockRenderManager();
+        final WorldMesherBlockModelRenderer blockRenderer = BLOCK_RENDERER.get();
+        final WorldMesherFluidRenderer fluidRenderer = FLUID_RENDERER.get();
+
+        final Set<RenderLayer> layers = new HashSet<>();
+        final MatrixStack matrices = new MatrixStack();
+        final Random random = new Random();
+
+        for (BlockPos pos : BlockPos.iterate(min, max)) {
+            final BlockState state = view.getBlockState(pos);
+            final FluidState fluidState = state.getFluidState();
+            if (state.isAir()) continue;
+
+            final int renderX = pos.getX() - origin.getX();
+            final int renderY = pos.getY() - origin.getY();
+            final int renderZ = pos.getZ() - origin.getZ();
+
+            if (state.getRenderType() != BlockRenderType.INVISIBLE) {
+                final RenderLayer layer = RenderLayers.getBlockLayer(state);
+                final BufferBuilder buffer = begin(storage, layers, layer);
+
+                matrices.push();
+                matrices.translate(renderX, renderY, renderZ);
+
+                // Faces on the edge of the area are always drawn, the blocks next to them are not part of the hologram
+                blockRenderer.clearCullingOverrides();
+                blockRenderer.setCullDirection(Direction.EAST, pos.getX() == areaMax.getX());
+                blockRenderer.setCullDirection(Direction.WEST, pos.getX() == origin.getX());
+                blockRenderer.setCullDirection(Direction.SOUTH, pos.getZ() == areaMax.getZ());
+                blockRenderer.setCullDirection(Direction.NORTH, pos.getZ() == origin.getZ());
+                blockRenderer.setCullDirection(Direction.UP, pos.getY() == areaMax.getY());
+                blockRenderer.setCullDirection(Direction.DOWN, pos.getY() == origin.getY());
+
+                blockRenderer.render(view, blockRenderManager.getModel(state), state, pos, matrices, buffer, true, random, state.getRenderingSeed(pos), OverlayTexture.DEFAULT_UV);
+                matrices.pop();
+            }
+
+            if (!fluidState.isEmpty()) {
+                final RenderLayer layer = RenderLayers.getFluidLayer(fluidState);
+                final BufferBuilder buffer = begin(storage, layers, layer);
+
+                matrices.push();
+                matrices.translate(renderX - (pos.getX() & 15), renderY - (pos.getY() & 15), renderZ - (pos.getZ() & 15));
+                fluidRenderer.setMatrix(matrices.peek().getModel());
+                fluidRenderer.render(view, pos, buffer, fluidState);
+                matrices.pop();
+            }
+        }
+
+        // Translucent quads are left unsorted. The hologram is scaled down and spins around the projector, so an order
+        // for the world camera would be wrong for it, and sorting in hologram space means sorting and uploading again
+        // every frame. At hologram scale the few blended faces that overlap are hardly visible
+
+        // The data stays valid until the storage is reset, after it has been uploaded
+        final Map<RenderLayer, ByteBuffer> data = new HashMap<>();
+        for (RenderLayer layer : layers) {
+            final BufferBuilder buffer = storage.get(layer);
+            buffer.end();
+            data.put(layer, buffer.popData().getSecond());
+        }
+
+        return data;
+    }
+
+    private static BufferBuilder begin(BlockBufferBuilderStorage storage, Set<RenderLayer> layers, RenderLayer layer) {
+        final BufferBuilder buffer = storage.get(layer);
+        if (layers.add(layer)) buffer.begin(GL11.GL_QUADS, AreaMesh.FORMAT);
+        return buffer;
+    }
+
+    private static void upload(BuildResult result) {
+        final AreaMesh.Section section = result.section;
+
+        if (!section.mesh.isClosed() && result.version == section.version) {
+            final Iterator<Map.Entry<RenderLayer, VertexBuffer>> iterator = section.buffers.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<RenderLayer, VertexBuffer> entry = iterator.next();
+                if (result.layers.containsKey(entry.getKey())) continue;
+                entry.getValue().close();
+                iterator.remove();
+            }
+
+            for (Map.Entry<RenderLayer, ByteBuffer> entry : result.layers.entrySet()) {
+                upload(section.buffers.computeIfAbsent(entry.getKey(), l -> new VertexBuffer(AreaMesh.FORMAT)), entry.getValue());
+            }
+
+            section.mesh.onSectionBuilt(section, result.nanos, result.cached);
+        }
+
+        if (result.storage != null) {
+            result.storage.reset();
+            FREE_STORAGES.add(result.storage);
+        }
+    }
+
+    private static void upload(VertexBuffer buffer, ByteBuffer data) {
+        // Same as VertexBuffer#upload, which only accepts a BufferBuilder and not data loaded from the disk cache
+        ((VertexBufferAccessor) buffer).setVertexCount(data.remaining() / AreaMesh.FORMAT.getVertexSize());
+        buffer.bind();
+        RenderSystem.glBufferData(GL15.GL_ARRAY_BUFFER, data, GL15.GL_STATIC_DRAW);
+        VertexBuffer.unbind();
+    }
+
+    public static int getThreadCount() {
+        return THREADS;
+    }
+
+    public static int getPendingSections() {
+        return PENDING.size();
+    }
+
+    public static int getRunningBuilds() {
+        return runningBuilds;
+    }
+
+    private static class BuildResult {
+
+        private final AreaMesh.Section section;
+        private final int version;
+        private final BlockBufferBuilderStorage storage;
+        private final Map<RenderLayer, ByteBuffer> layers;
+        private final boolean cached;
+        private final long nanos;
+
+        private BuildResult(AreaMesh.Section section, int version, BlockBufferBuilderStorage storage, Map<RenderLayer, ByteBuffer> layers, boolean cached, long nanos) {
+            this.section = section;
+            this.version = version;
+            this.storage = storage;
+            this.layers = layers;
+            this.cached = cached;
+            this.nanos = nanos;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.mystic.holographicrenders.client;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.fluid.Fluids;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.BlockRenderView;
+import net.minecraft.world.chunk.light.LightingProvider;
+import net.minecraft.world.level.ColorResolver;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A {@link BlockRenderView} which only exposes the blocks inside the given bounds of its delegate,
+ * everything outside reads as air. Area meshes use this around views which only cache a limited region,
+ * the block renderer looks far outside the meshed blocks for faces on the edge of an area
+ */
+public class ClippedBlockRenderView implements BlockRenderView {
+
+    private final BlockRenderView delegate;
+    private final BlockPos min;
+    private final BlockPos max;
+
+    public ClippedBlockRenderView(BlockRenderView delegate, BlockPos min, BlockPos max) {
+        this.delegate = delegate;
+        this.min = min;
+        this.max = max;
+    }
+
+    private boolean contains(BlockPos pos) {
+        return pos.getX() >= min.getX() && pos.getX() <= max.getX()
+                && pos.getY() >= min.getY() && pos.getY() <= max.getY()
+                && pos.getZ() >= min.getZ() && pos.getZ() <= max.getZ();
+    }
+
+    @Override
+    public float getBrightness(Direction direction, boolean shaded) {
+        return delegate.getBrightness(direction, shaded);
+    }
+
+    @Override
+    public LightingProvider getLightingProvider() {
+        return delegate.getLightingProvider();
+    }
+
+    @Override
+    public int getColor(BlockPos pos, ColorResolver colorResolver) {
+        return delegate.getColor(pos, colorResolver);
+    }
+
+    @Nullable
+    @Override
+    public BlockEntity getBlockEntity(BlockPos pos) {
+        return contains(pos) ? delegate.getBlockEntity(pos) : null;
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        return contains(pos) ? delegate.getBlockState(pos) : Blocks.AIR.getDefaultState();
+    }
+
+    @Override
+    public FluidState getFluidState(BlockPos pos) {
+        return contains(pos) ? delegate.getFluidState(pos) : Fluids.EMPTY.getDefaultState();
+    }
+}
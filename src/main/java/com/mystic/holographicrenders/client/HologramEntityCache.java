@@ -0,0 +1,146 @@
+package com.mystic.holographicrenders.client;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.world.World;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Function;
+
+/**
+ * Client-side cache of the {@link Entity} instances shown by entity holograms. Entities are keyed by
+ * their captured NBT, so any number of projectors showing the same entity share a single instance
+ * <p>
+ * Entries are reference counted by the providers using them, entries without any references are kept
+ * around for reuse and evicted least recently used first
+ */
+public class HologramEntityCache {
+
+    private static final int MAX_IDLE_ENTRIES = 32;
+
+    private static final LinkedHashMap<Fingerprint, Handle> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+    private static int idleEntries = 0;
+    private static long entityBuilds = 0;
+
+    /**
+     * Acquires a reference to the cached entity for the given NBT, creating
+     * the entry if no projector currently uses an identical entity
+     *
+     * @param entityTag The captured entity NBT
+     * @return A handle which must be given back to {@link #release(Handle)} once it's no longer used
+     */
+    public static Handle acquire(NbtCompound entityTag) {
+        final Fingerprint fingerprint = new Fingerprint(entityTag);
+
+        Handle handle = CACHE.get(fingerprint);
+        if (handle == null) {
+            handle = new Handle(fingerprint);
+            CACHE.put(fingerprint, handle);
+        } else if (handle.references == 0) {
+            idleEntries--;
+        }
+
+        handle.references++;
+        return handle;
+    }
+
+    /**
+     * Gives back a reference obtained from {@link #acquire(NbtCompound)}
+     *
+     * @param handle The handle to release
+     */
+    public static void release(Handle handle) {
+        if (handle.references <= 0) return;
+        if (--handle.references > 0) return;
+
+        if (CACHE.get(handle.fingerprint) != handle) return;
+        idleEntries++;
+        trimIdleEntries(MAX_IDLE_ENTRIES);
+    }
+
+    /**
+     * Drops all entities, including the ones still referenced, called when leaving a world. Idle entries are
+     * removed, entries still in use stay in the cache so their handles keep being shared and load their entity again
+     */
+    public static void clear() {
+        final Iterator<Handle> iterator = CACHE.values().iterator();
+        while (iterator.hasNext()) {
+            final Handle handle = iterator.next();
+            handle.entity = null;
+            if (handle.references == 0) iterator.remove();
+        }
+        idleEntries = 0;
+    }
+
+    private static void trimIdleEntries(int maxIdle) {
+        final Iterator<Handle> iterator = CACHE.values().iterator();
+        while (idleEntries > maxIdle && iterator.hasNext()) {
+            final Handle handle = iterator.next();
+            if (handle.references > 0) continue;
+            iterator.remove();
+            idleEntries--;
+        }
+    }
+
+    public static int size() {
+        return CACHE.size();
+    }
+
+    public static long getEntityBuilds() {
+        return entityBuilds;
+    }
+
+    public static class Handle {
+
+        private final Fingerprint fingerprint;
+        private int references = 0;
+        private Entity entity = null;
+
+        private Handle(Fingerprint fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        /**
+         * Gets the entity of this entry, loading it if it has not been loaded
+         * yet or was loaded into a different world
+         *
+         * @param world The world to load the entity into
+         * @return The entity, or {@code null} if it could not be loaded
+         */
+        public Entity getEntity(World world) {
+            if (entity != null && entity.world == world) return entity;
+            if (world == null) return null;
+
+            entity = EntityType.loadEntityWithPassengers(fingerprint.tag, world, Function.identity());
+            entityBuilds++;
+            return entity;
+        }
+    }
+
+    private static class Fingerprint {
+
+        private final NbtCompound tag;
+        private final int hash;
+
+        private Fingerprint(NbtCompound tag) {
+            // Copied so later changes to the captured tag cannot corrupt the key
+            this.tag = tag.copy();
+            this.hash = tag.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Fingerprint)) return false;
+            final Fingerprint other = (Fingerprint) o;
+            return hash == other.hash && tag.equals(other.tag);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -10,22 +10,34 @@ import net.minecraft.client.render.RenderLayer;
 import net.minecraft.client.render.VertexConsumer;
 import net.minecraft.client.render.VertexConsumerProvider;
 
-import java.util.IdentityHashMap;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
 
 public class HologramRenderLayer extends RenderLayer {
 
-    //TODO refactor this and make it not shit
-
-    private static final Map<RenderLayer, RenderLayer> remappedTypes = new IdentityHashMap<>();
-    private static float alpha = 0.6f;
-
-    public static final Runnable beginAction = () -> {
+    /**
+     * Maps vanilla layers to their hologram counterpart. The table is filled when the buffers are
+     * initialized and replaced as a whole when a layer shows up later, so lookups never lock or allocate
+     */
+    private static volatile Map<RenderLayer, HologramRenderLayer> remappedTypes = new IdentityHashMap<>();
+
+    /**
+     * Starts blending geometry that is drawn immediately instead of through the
+     * hologram buffers, like area meshes, with the given alpha as a constant blend color
+     *
+     * @param alpha The alpha of the hologram being drawn
+     */
+    public static void beginConstantAlpha(float alpha) {
         RenderSystem.enableBlend();
         RenderSystem.blendFunc(GlStateManager.SrcFactor.CONSTANT_ALPHA, GlStateManager.DstFactor.ONE_MINUS_CONSTANT_ALPHA);
-        RenderSystem.blendColor(1, 1, 1, alpha); //TODO check my math! (redAlpha = 0 = ON), (redAlpha = 15 = OFF) //TODO fix this so only on is doing this at a time!!!
+        RenderSystem.blendColor(1, 1, 1, alpha);
+    }
+
+    /**
+     * Start action for the remapped layers, which carry the hologram alpha in their vertex colors
+     */
+    public static final Runnable vertexAlphaBeginAction = () -> {
+        RenderSystem.enableBlend();
+        RenderSystem.defaultBlendFunc();
     };
 
     public static final Runnable endAction = () -> {
@@ -33,14 +45,10 @@ public class HologramRenderLayer extends RenderLayer {
         RenderSystem.disableBlend();
     };
 
-    public static void setAlpha(float alpha) {
-        HologramRenderLayer.alpha = alpha;
-    }
-
     private HologramRenderLayer(RenderLayer original) {
         super(String.format("%s_%s_hologram", original.toString(), HolographicRenders.MOD_ID), original.getVertexFormat(), original.getDrawMode(), original.getExpectedBufferSize(), original.hasCrumbling(), true, () -> {
             original.startDrawing();
-            beginAction.run();
+            vertexAlphaBeginAction.run();
         }, () -> {
             endAction.run();
             original.endDrawing();
@@ -48,26 +56,65 @@ public class HologramRenderLayer extends RenderLayer {
     }
 
     public static RenderLayer remap(RenderLayer in) {
-        if (in instanceof HologramRenderLayer) {
-            return in;
-        } else {
-            return remappedTypes.computeIfAbsent(in, original -> new HologramRenderLayer(original));
+        if (in instanceof HologramRenderLayer) return in;
+
+        final RenderLayer remapped = remappedTypes.get(in);
+        return remapped != null ? remapped : register(Collections.singleton(in)).get(in);
+    }
+
+    private static synchronized Map<RenderLayer, HologramRenderLayer> register(Collection<RenderLayer> layers) {
+        Map<RenderLayer, HologramRenderLayer> table = remappedTypes;
+        for (RenderLayer layer : layers) {
+            if (layer instanceof HologramRenderLayer || table.containsKey(layer)) continue;
+            if (table == remappedTypes) table = new IdentityHashMap<>(table);
+            table.put(layer, new HologramRenderLayer(layer));
         }
+        remappedTypes = table;
+        return table;
     }
 
-    public static VertexConsumerProvider.Immediate initBuffers(VertexConsumerProvider.Immediate original) {
+    public static HologramVertexConsumerProvider initBuffers(VertexConsumerProvider.Immediate original) {
         Map<RenderLayer, BufferBuilder> layerBuffers = ((VertexConsumerProviderImmediateAccessor) original).getLayerBuffers();
+
+        final List<RenderLayer> knownLayers = new ArrayList<>(layerBuffers.keySet());
+        knownLayers.addAll(RenderLayer.getBlockLayers());
+        final Map<RenderLayer, HologramRenderLayer> table = register(knownLayers);
+
         Map<RenderLayer, BufferBuilder> remapped = new Object2ObjectLinkedOpenHashMap<>();
         for (Map.Entry<RenderLayer, BufferBuilder> e : layerBuffers.entrySet()) {
-            remapped.put(HologramRenderLayer.remap(e.getKey()), new BufferBuilder(e.getKey().getExpectedBufferSize()));
+            remapped.put(table.get(e.getKey()), new BufferBuilder(e.getKey().getExpectedBufferSize()));
         }
         return new HologramVertexConsumerProvider(new BufferBuilder(256), remapped);
     }
 
+    /**
+     * Collects the geometry of all holograms rendered in a frame, so that each layer only needs
+     * to be drawn once. The alpha of each hologram is baked into its vertex colors
+     */
     public static class HologramVertexConsumerProvider extends VertexConsumerProvider.Immediate {
 
+        private final Map<BufferBuilder, AlphaVertexConsumer> alphaConsumers = new IdentityHashMap<>();
+        private float alpha = 1;
+
         protected HologramVertexConsumerProvider(BufferBuilder fallback, Map<RenderLayer, BufferBuilder> layerBuffers) {
             super(fallback, layerBuffers);
+            alphaConsumers.put(fallback, new AlphaVertexConsumer(fallback, this));
+            for (BufferBuilder buffer : layerBuffers.values()) {
+                alphaConsumers.put(buffer, new AlphaVertexConsumer(buffer, this));
+            }
+        }
+
+        /**
+         * Sets the alpha applied to all vertices emitted from now on
+         *
+         * @param alpha The alpha of the hologram about to be rendered
+         */
+        public void setAlpha(float alpha) {
+            this.alpha = alpha;
+        }
+
+        public float getAlpha() {
+            return alpha;
         }
 
         @Override
@@ -95,7 +142,7 @@ public class HologramRenderLayer extends RenderLayer {
                 this.currentLayer = optional;
             }
 
-            return bufferBuilder;
+            return alphaConsumers.get(bufferBuilder);
         }
     }
 }
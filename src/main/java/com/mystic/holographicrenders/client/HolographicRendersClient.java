@@ -7,14 +7,26 @@ import com.mystic.holographicrenders.blocks.projector.ProjectorBlockEntity;
 import com.mystic.holographicrenders.gui.ProjectorScreen;
 import com.mystic.holographicrenders.gui.TextboxScreen;
 import com.mystic.holographicrenders.item.TextureScannerItem;
+import com.mystic.holographicrenders.network.AreaDeltaPacket;
+import com.mystic.holographicrenders.network.PayloadPacket;
 import com.mystic.holographicrenders.network.ProjectorScreenPacket;
+import com.mystic.holographicrenders.network.ProjectorStatePacket;
+import com.mystic.holographicrenders.network.ProjectorSyncPacket;
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientBlockEntityEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientChunkEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
 import net.fabricmc.fabric.api.client.rendereregistry.v1.BlockEntityRendererRegistry;
 import net.fabricmc.fabric.api.client.screenhandler.v1.ScreenRegistry;
+import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
+import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
 import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.item.ItemStack;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.resource.ResourceType;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
 
@@ -24,11 +36,14 @@ public class HolographicRendersClient implements ClientModInitializer {
     public void onInitializeClient() {
         BlockEntityRendererRegistry.INSTANCE.register(HolographicRenders.PROJECTOR_BLOCK_ENTITY, ProjectorBlockEntityRenderer::new);
 
-        RenderDataProvider.registerDefaultProviders();
-
         ScreenRegistry.register(HolographicRenders.PROJECTOR_SCREEN_HANDLER, ProjectorScreen::new);
 
         ClientPlayNetworking.registerGlobalReceiver(ProjectorScreenPacket.UPDATE_ID, ProjectorScreenPacket::onClientUpdate);
+        ClientPlayNetworking.registerGlobalReceiver(AreaDeltaPacket.DELTA_ID, AreaDeltaPacket::onClientDelta);
+        ClientPlayNetworking.registerGlobalReceiver(ProjectorSyncPacket.ID, ProjectorSyncPacket::onClientUpdate);
+        ClientPlayNetworking.registerGlobalReceiver(ProjectorStatePacket.PROVIDER_IDS_ID, ProjectorStatePacket::onProviderIds);
+        ClientPlayNetworking.registerGlobalReceiver(ProjectorStatePacket.STATE_ID, ProjectorStatePacket::onClientState);
+        ClientPlayNetworking.registerGlobalReceiver(PayloadPacket.DATA_ID, PayloadPacket::onData);
 
         ClientPlayNetworking.registerGlobalReceiver(new Identifier(HolographicRenders.MOD_ID, "render_packet"), (client, handler, buf, responseSender) -> {
             ItemStack stack = buf.readItemStack();
@@ -40,6 +55,34 @@ public class HolographicRendersClient implements ClientModInitializer {
                 }
             });
         });
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
+            HologramEntityCache.clear();
+            RemoteTextureManager.clear();
+            AreaMeshRegistry.clear();
+            PayloadCache.clearPending();
+            PayloadLoader.clear();
+        });
+        ClientTickEvents.END_CLIENT_TICK.register(client -> {
+            AreaMeshRegistry.tick();
+            PayloadLoader.tick(client);
+            AreaMeshBenchmark.tick(client);
+        });
+        ClientBlockEntityEvents.BLOCK_ENTITY_UNLOAD.register((blockEntity, world) -> {
+            if (blockEntity instanceof ProjectorBlockEntity) ((ProjectorBlockEntity) blockEntity).disposeProviders();
+        });
+        ClientChunkEvents.CHUNK_LOAD.register((world, chunk) -> AreaMeshRegistry.onChunkLoaded(world, chunk.getPos()));
+        ResourceManagerHelper.get(ResourceType.CLIENT_RESOURCES).registerReloadListener(new SimpleSynchronousResourceReloadListener() {
+            @Override
+            public Identifier getFabricId() {
+                return new Identifier(HolographicRenders.MOD_ID, "area_mesh_cache");
+            }
+
+            @Override
+            public void apply(ResourceManager manager) {
+                AreaMeshDiskCache.onResourcesReloaded();
+            }
+        });
+
         Common.textScreenRunnable = (hand -> {
             MinecraftClient.getInstance().openScreen(new TextboxScreen(new TextboxScreenRoot(hand)));
         });
@@ -0,0 +1,128 @@
+package com.mystic.holographicrenders.client;
+
+import net.minecraft.client.gl.VertexBuffer;
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.RenderLayer;
+import net.minecraft.client.render.VertexFormat;
+import net.minecraft.client.render.VertexFormats;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.util.math.Matrix4f;
+import org.lwjgl.opengl.GL11;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Draws the light cone of projectors. The cone geometry is the same for every projector, its facing
+ * is already part of the matrix, so it is uploaded once. Projectors only queue their matrix, all cones
+ * of a frame are drawn together with a single render layer setup
+ */
+public class LightConeRenderer {
+
+    private static final VertexFormat FORMAT = VertexFormats.POSITION_COLOR;
+
+    private static final float RED = 0.5f;
+    private static final float GREEN = 0.5f;
+    private static final float BLUE = 1;
+
+    private static final float BOTTOM_Y = 0.3f;
+    private static final float TOP_Y = 0.7f;
+    private static final float START_ALPHA = 0.65f;
+
+    /**
+     * Matrices are reused across frames, only the first {@link #queued} of them belong to the current frame
+     */
+    private static final List<Matrix4f> QUEUED = new ArrayList<>();
+    private static int queued = 0;
+
+    private static VertexBuffer vertexBuffer = null;
+
+    /**
+     * Queues a light cone for drawing with the given matrices
+     *
+     * @param matrices The matrices of the projector, already rotated to its facing
+     */
+    public static void queue(MatrixStack matrices) {
+        if (queued == QUEUED.size()) QUEUED.add(new Matrix4f());
+        QUEUED.get(queued++).load(matrices.peek().getModel());
+    }
+
+    /**
+     * Draws all queued light cones, called once per frame after block entities have been rendered
+     */
+    public static void flush() {
+        if (queued == 0) return;
+        if (vertexBuffer == null) init();
+
+        final RenderLayer layer = RenderLayer.getLightning();
+        layer.startDrawing();
+
+        vertexBuffer.bind();
+        FORMAT.startDrawing(0L);
+        for (int i = 0; i < queued; i++) {
+            vertexBuffer.draw(QUEUED.get(i), GL11.GL_QUADS);
+        }
+        FORMAT.endDrawing();
+        VertexBuffer.unbind();
+
+        layer.endDrawing();
+        queued = 0;
+    }
+
+    private static void init() {
+        final BufferBuilder buffer = new BufferBuilder(32 * FORMAT.getVertexSize());
+        buffer.begin(GL11.GL_QUADS, FORMAT);
+
+        vertex(buffer, 0.1f, BOTTOM_Y, 0.125f, START_ALPHA);
+        vertex(buffer, 0.9f, BOTTOM_Y, 0.125f, START_ALPHA);
+        vertex(buffer, 1, TOP_Y, -0.25f, 0);
+        vertex(buffer, 0, TOP_Y, -0.25f, 0);
+
+        vertex(buffer, 0, TOP_Y, -0.25f, 0);
+        vertex(buffer, 1, TOP_Y, -0.25f, 0);
+        vertex(buffer, 0.9f, BOTTOM_Y, 0.125f, START_ALPHA);
+        vertex(buffer, 0.1f, BOTTOM_Y, 0.125f, START_ALPHA);
+
+
+        vertex(buffer, 0.1f, BOTTOM_Y, 0.875f, START_ALPHA);
+        vertex(buffer, 0.9f, BOTTOM_Y, 0.875f, START_ALPHA);
+        vertex(buffer, 1, TOP_Y, 1.25f, 0);
+        vertex(buffer, 0, TOP_Y, 1.25f, 0);
+
+        vertex(buffer, 0, TOP_Y, 1.25f, 0);
+        vertex(buffer, 1, TOP_Y, 1.25f, 0);
+        vertex(buffer, 0.9f, BOTTOM_Y, 0.875f, START_ALPHA);
+        vertex(buffer, 0.1f, BOTTOM_Y, 0.875f, START_ALPHA);
+
+
+        vertex(buffer, 0.875f, BOTTOM_Y, 0.1f, START_ALPHA);
+        vertex(buffer, 0.875f, BOTTOM_Y, 0.9f, START_ALPHA);
+        vertex(buffer, 1.25f, TOP_Y, 1, 0);
+        vertex(buffer, 1.25f, TOP_Y, 0, 0);
+
+        vertex(buffer, 1.25f, TOP_Y, 0, 0);
+        vertex(buffer, 1.25f, TOP_Y, 1, 0);
+        vertex(buffer, 0.875f, BOTTOM_Y, 0.9f, START_ALPHA);
+        vertex(buffer, 0.875f, BOTTOM_Y, 0.1f, START_ALPHA);
+
+
+        vertex(buffer, 0.125f, BOTTOM_Y, 0.1f, START_ALPHA);
+        vertex(buffer, 0.125f, BOTTOM_Y, 0.9f, START_ALPHA);
+        vertex(buffer, -0.25f, TOP_Y, 1, 0);
+        vertex(buffer, -0.25f, TOP_Y, 0, 0);
+
+        vertex(buffer, -0.25f, TOP_Y, 0, 0);
+        vertex(buffer, -0.25f, TOP_Y, 1, 0);
+        vertex(buffer, 0.125f, BOTTOM_Y, 0.9f, START_ALPHA);
+        vertex(buffer, 0.125f, BOTTOM_Y, 0.1f, START_ALPHA);
+
+        buffer.end();
+
+        vertexBuffer = new VertexBuffer(FORMAT);
+        vertexBuffer.upload(buffer);
+    }
+
+    private static void vertex(BufferBuilder buffer, float x, float y, float z, float a) {
+        buffer.vertex(x, y, z).color(RED, GREEN, BLUE, a).next();
+    }
+}
@@ -0,0 +1,89 @@
+package com.mystic.holographicrenders.client;
+
+import com.mystic.holographicrenders.network.PayloadPacket;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.minecraft.nbt.NbtCompound;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Client side cache of the payloads projectors reference by hash. Each payload is requested from the server
+ * once, no matter how many projectors reference it. Payloads are content addressed, so the cache is kept
+ * across servers
+ * <p>
+ * Only used on the client thread
+ */
+public class PayloadCache {
+
+    private static final int MAX_ENTRIES = 256;
+    private static final long RETRY_DELAY = 5000;
+
+    private static final Map<String, NbtCompound> PAYLOADS = new LinkedHashMap<String, NbtCompound>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, NbtCompound> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private static final Map<String, List<Consumer<NbtCompound>>> PENDING = new HashMap<>();
+    private static final Map<String, Long> FAILED = new HashMap<>();
+
+    /**
+     * Gets a payload, requesting it from the server if it is not cached. The callback runs right away for cached
+     * payloads and receives {@code null} if the server refused the request, which is not repeated for
+     * {@link #RETRY_DELAY} milliseconds. The payload passed to it is shared, callers have to copy it before modifying it
+     *
+     * @param hash     The hash of the payload
+     * @param callback The callback to pass the payload to
+     */
+    public static void get(String hash, Consumer<NbtCompound> callback) {
+        final NbtCompound payload = PAYLOADS.get(hash);
+        if (payload != null) {
+            callback.accept(payload);
+            return;
+        }
+
+        final Long failedAt = FAILED.get(hash);
+        if (failedAt != null && System.currentTimeMillis() - failedAt < RETRY_DELAY) {
+            callback.accept(null);
+            return;
+        }
+
+        final List<Consumer<NbtCompound>> callbacks = PENDING.get(hash);
+        if (callbacks != null) {
+            callbacks.add(callback);
+            return;
+        }
+
+        PENDING.put(hash, new ArrayList<>(Collections.singletonList(callback)));
+        ClientPlayNetworking.getSender().sendPacket(PayloadPacket.createRequest(hash));
+    }
+
+    /**
+     * Called when the server answered a request
+     *
+     * @param hash    The hash of the requested payload
+     * @param payload The payload, or {@code null} if the server refused the request
+     */
+    public static void complete(String hash, @Nullable NbtCompound payload) {
+        final List<Consumer<NbtCompound>> callbacks = PENDING.remove(hash);
+
+        if (payload == null) {
+            FAILED.put(hash, System.currentTimeMillis());
+        } else {
+            FAILED.remove(hash);
+            PAYLOADS.put(hash, payload);
+        }
+
+        if (callbacks != null) callbacks.forEach(callback -> callback.accept(payload));
+    }
+
+    /**
+     * Drops all outstanding and refused requests, called when leaving a server
+     */
+    public static void clearPending() {
+        PENDING.clear();
+        FAILED.clear();
+    }
+}
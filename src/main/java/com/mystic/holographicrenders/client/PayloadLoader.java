@@ -0,0 +1,73 @@
+package com.mystic.holographicrenders.client;
+
+import com.mystic.holographicrenders.HolographicRendersConfig;
+import com.mystic.holographicrenders.blocks.projector.ProjectorBlockEntity;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.*;
+
+/**
+ * Decides when projectors on the client load and drop their stored payloads. Projectors only receive the hashes
+ * of their payloads, the payloads themselves are requested once the camera gets within
+ * {@link HolographicRendersConfig#hologramViewDistance}, closest projectors first, and dropped again once it moves
+ * {@link #DISCARD_FACTOR} times as far away
+ * <p>
+ * Only used on the client thread
+ */
+public class PayloadLoader {
+
+    /**
+     * Projectors keep their payloads until they are this many times the view distance away, so walking
+     * along the edge of the view distance does not fetch the same payloads over and over
+     */
+    public static final double DISCARD_FACTOR = 1.25;
+
+    private static final int MAX_REQUESTS_PER_TICK = 4;
+
+    private static final Set<ProjectorBlockEntity> PROJECTORS = new HashSet<>();
+
+    /**
+     * Starts managing the payloads of the given projector, called when it receives payload hashes
+     */
+    public static void track(ProjectorBlockEntity projector) {
+        PROJECTORS.add(projector);
+    }
+
+    public static void tick(MinecraftClient client) {
+        if (client.world == null || PROJECTORS.isEmpty()) return;
+
+        final Vec3d camera = client.gameRenderer.getCamera().getPos();
+        final double loadDistance = HolographicRendersConfig.hologramViewDistance * HolographicRendersConfig.hologramViewDistance;
+        final double discardDistance = loadDistance * DISCARD_FACTOR * DISCARD_FACTOR;
+
+        final List<ProjectorBlockEntity> candidates = new ArrayList<>();
+        final Map<ProjectorBlockEntity, Double> distances = new HashMap<>();
+
+        final Iterator<ProjectorBlockEntity> iterator = PROJECTORS.iterator();
+        while (iterator.hasNext()) {
+            final ProjectorBlockEntity projector = iterator.next();
+            if (projector.isRemoved() || projector.getWorld() != client.world || !projector.hasStoredPayloads()) {
+                iterator.remove();
+                continue;
+            }
+
+            final double distance = camera.squaredDistanceTo(Vec3d.ofCenter(projector.getPos()));
+            if (distance > discardDistance) {
+                projector.discardPayloads();
+            } else if (distance <= loadDistance && projector.needsPayloads()) {
+                candidates.add(projector);
+                distances.put(projector, distance);
+            }
+        }
+
+        candidates.sort(Comparator.comparing(distances::get));
+        for (int i = 0; i < Math.min(MAX_REQUESTS_PER_TICK, candidates.size()); i++) {
+            candidates.get(i).loadPayloads();
+        }
+    }
+
+    public static void clear() {
+        PROJECTORS.clear();
+    }
+}
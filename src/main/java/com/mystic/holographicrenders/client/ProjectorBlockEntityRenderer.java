@@ -1,25 +1,35 @@
 package com.mystic.holographicrenders.client;
 
-import com.mystic.holographicrenders.blocks.projector.ItemProjectionHandler;
+import com.mystic.holographicrenders.HolographicRendersConfig;
 import com.mystic.holographicrenders.blocks.projector.ProjectorBlock;
 import com.mystic.holographicrenders.blocks.projector.ProjectorBlockEntity;
 import net.minecraft.client.MinecraftClient;
-import net.minecraft.client.render.BufferBuilder;
-import net.minecraft.client.render.RenderLayer;
-import net.minecraft.client.render.VertexConsumer;
+import net.minecraft.client.render.Frustum;
 import net.minecraft.client.render.VertexConsumerProvider;
 import net.minecraft.client.render.block.entity.BlockEntityRenderDispatcher;
 import net.minecraft.client.render.block.entity.BlockEntityRenderer;
 import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.client.util.math.Vector4f;
+import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.Matrix4f;
 import net.minecraft.util.math.Vec3f;
 
 import java.net.MalformedURLException;
+import java.util.Arrays;
 
 public class ProjectorBlockEntityRenderer extends BlockEntityRenderer<ProjectorBlockEntity> {
 
-    private static VertexConsumerProvider.Immediate immediate;
+    private static HologramRenderLayer.HologramVertexConsumerProvider immediate;
+
+    private static final int[] detailCounts = new int[DetailLevel.values().length];
+    private static final int[] lastFrameDetailCounts = new int[DetailLevel.values().length];
+    private static int culledCount = 0;
+    private static int lastFrameCulledCount = 0;
+
+    private static final Box LIGHT_CONE_BOUNDS = new Box(-0.25, 0.3, -0.25, 1.25, 0.7, 1.25);
+
+    private static Frustum frustum = null;
 
     public ProjectorBlockEntityRenderer(BlockEntityRenderDispatcher dispatcher) {
         super(dispatcher);
@@ -31,95 +41,164 @@ public class ProjectorBlockEntityRenderer extends BlockEntityRenderer<ProjectorB
             immediate = HologramRenderLayer.initBuffers(MinecraftClient.getInstance().getBufferBuilders().getEntityVertexConsumers());
         }
 
-        matrices.push();
+        final DetailLevel detail = DetailLevel.forDistance(entity.getPos().getSquaredDistance(dispatcher.camera.getPos(), true), getRenderDistance(entity));
+        if (detail != DetailLevel.HIDDEN && frustum != null && !frustum.isVisible(getRenderBounds(entity))) {
+            culledCount++;
+            return;
+        }
 
-        Direction facing = ProjectorBlock.getFacing(entity.getCachedState());
+        detailCounts[detail.ordinal()]++;
+        if (detail == DetailLevel.HIDDEN) return;
 
-        matrices.translate(facing.getOffsetX() * 0.55, facing.getOffsetY() * 0.55, facing.getOffsetZ() * 0.55);
+        matrices.push();
 
-        matrices.translate(0.5, 0.5, 0.5);
-        matrices.multiply(Vec3f.NEGATIVE_X.getDegreesQuaternion(facing.getOffsetY() == -1 ? 180 : 0));
-        matrices.multiply(Vec3f.POSITIVE_X.getDegreesQuaternion(facing.getOffsetZ() * 90));
-        matrices.multiply(Vec3f.NEGATIVE_Z.getDegreesQuaternion(facing.getOffsetX() * 90));
-        matrices.translate(-0.5, -0.5, -0.5);
+        applyFacing(matrices, ProjectorBlock.getFacing(entity.getCachedState()));
 
         if (entity.lightsEnabled()) {
+            LightConeRenderer.queue(matrices);
+        }
+
+        if (entity.getAlpha() != 0 && detail != DetailLevel.LIGHTS_ONLY) {
+            immediate.setAlpha(entity.getAlpha());
             matrices.push();
 
-            final BufferBuilder buffer = (BufferBuilder) vertexConsumers.getBuffer(RenderLayer.getLightning());
-            final Matrix4f matrix4f = matrices.peek().getModel();
+            try {
+                if (detail == DetailLevel.FULL) {
+                    entity.getResolvedProvider().render(matrices, immediate, tickDelta, light, overlay, entity);
+                } else {
+                    entity.getResolvedProvider().renderReduced(matrices, immediate, tickDelta, light, overlay, entity);
+                }
+            } catch (MalformedURLException ignored) {}
 
-            final float r = 0.5f;
-            final float g = 0.5f;
-            final float b = 1;
+            matrices.pop();
+        }
+        matrices.pop();
+    }
 
-            final float bottomY = 0.3f;
-            final float topY = 0.7f;
-            final float startAlpha = 0.65f;
 
-            vertex(matrix4f, buffer, 0.1f, bottomY, 0.125f, r, g, b, startAlpha);
-            vertex(matrix4f, buffer, 0.9f, bottomY, 0.125f, r, g, b, startAlpha);
-            vertex(matrix4f, buffer, 1, topY, -0.25f, r, g, b, 0);
-            vertex(matrix4f, buffer, 0, topY, -0.25f, r, g, b, 0);
+    @Override
+    public boolean rendersOutsideBoundingBox(ProjectorBlockEntity blockEntity) {
+        // Holograms reach far outside their chunk, so chunk culling does not apply and they are culled in render
+        return true;
+    }
 
-            vertex(matrix4f, buffer, 0, topY, -0.25f, r, g, b, 0);
-            vertex(matrix4f, buffer, 1, topY, -0.25f, r, g, b, 0);
-            vertex(matrix4f, buffer, 0.9f, bottomY, 0.125f, r, g, b, startAlpha);
-            vertex(matrix4f, buffer, 0.1f, bottomY, 0.125f, r, g, b, startAlpha);
+    private static void applyFacing(MatrixStack matrices, Direction facing) {
+        matrices.translate(facing.getOffsetX() * 0.55, facing.getOffsetY() * 0.55, facing.getOffsetZ() * 0.55);
 
+        matrices.translate(0.5, 0.5, 0.5);
+        matrices.multiply(Vec3f.NEGATIVE_X.getDegreesQuaternion(facing.getOffsetY() == -1 ? 180 : 0));
+        matrices.multiply(Vec3f.POSITIVE_X.getDegreesQuaternion(facing.getOffsetZ() * 90));
+        matrices.multiply(Vec3f.NEGATIVE_Z.getDegreesQuaternion(facing.getOffsetX() * 90));
+        matrices.translate(-0.5, -0.5, -0.5);
+    }
 
-            vertex(matrix4f, buffer, 0.1f, bottomY, 0.875f, r, g, b, startAlpha);
-            vertex(matrix4f, buffer, 0.9f, bottomY, 0.875f, r, g, b, startAlpha);
-            vertex(matrix4f, buffer, 1, topY, 1.25f, r, g, b, 0);
-            vertex(matrix4f, buffer, 0, topY, 1.25f, r, g, b, 0);
+    /**
+     * Gets the distance up to which the given projector would be rendered without detail levels,
+     * the render distance of block entities limited by the view distance
+     */
+    private static double getRenderDistance(ProjectorBlockEntity entity) {
+        return Math.min(Math.sqrt(entity.getSquaredRenderDistance()), MinecraftClient.getInstance().options.viewDistance * 16);
+    }
 
-            vertex(matrix4f, buffer, 0, topY, 1.25f, r, g, b, 0);
-            vertex(matrix4f, buffer, 1, topY, 1.25f, r, g, b, 0);
-            vertex(matrix4f, buffer, 0.9f, bottomY, 0.875f, r, g, b, startAlpha);
-            vertex(matrix4f, buffer, 0.1f, bottomY, 0.875f, r, g, b, startAlpha);
+    /**
+     * Gets the world space bounds of the projector's hologram and light cone. These are only
+     * computed again when the resolved provider or the facing of the projector changes
+     */
+    private static Box getRenderBounds(ProjectorBlockEntity entity) {
+        final RenderDataProvider<?> provider = entity.getResolvedProvider();
+
+        Box bounds = entity.getRenderBounds(provider);
+        if (bounds != null) return bounds;
+
+        final MatrixStack matrices = new MatrixStack();
+        applyFacing(matrices, ProjectorBlock.getFacing(entity.getCachedState()));
+        final Matrix4f model = matrices.peek().getModel();
+
+        final Box local = provider.getRenderBounds().union(LIGHT_CONE_BOUNDS);
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+
+        for (int i = 0; i < 8; i++) {
+            final Vector4f corner = new Vector4f(
+                    (float) ((i & 1) == 0 ? local.minX : local.maxX),
+                    (float) ((i & 2) == 0 ? local.minY : local.maxY),
+                    (float) ((i & 4) == 0 ? local.minZ : local.maxZ), 1);
+            corner.transform(model);
+
+            minX = Math.min(minX, corner.getX());
+            minY = Math.min(minY, corner.getY());
+            minZ = Math.min(minZ, corner.getZ());
+            maxX = Math.max(maxX, corner.getX());
+            maxY = Math.max(maxY, corner.getY());
+            maxZ = Math.max(maxZ, corner.getZ());
+        }
 
+        bounds = new Box(minX, minY, minZ, maxX, maxY, maxZ).offset(entity.getPos());
+        entity.setRenderBounds(provider, bounds);
+        return bounds;
+    }
 
-            vertex(matrix4f, buffer, 0.875f, bottomY, 0.1f, r, g, b, startAlpha);
-            vertex(matrix4f, buffer, 0.875f, bottomY, 0.9f, r, g, b, startAlpha);
-            vertex(matrix4f, buffer, 1.25f, topY, 1, r, g, b, 0);
-            vertex(matrix4f, buffer, 1.25f, topY, 0, r, g, b, 0);
+    /**
+     * Sets the frustum holograms are culled against, captured when the world renderer sets up terrain for the frame
+     */
+    public static void setFrustum(Frustum frustum) {
+        ProjectorBlockEntityRenderer.frustum = frustum;
+    }
 
-            vertex(matrix4f, buffer, 1.25f, topY, 0, r, g, b, 0);
-            vertex(matrix4f, buffer, 1.25f, topY, 1, r, g, b, 0);
-            vertex(matrix4f, buffer, 0.875f, bottomY, 0.9f, r, g, b, startAlpha);
-            vertex(matrix4f, buffer, 0.875f, bottomY, 0.1f, r, g, b, startAlpha);
+    /**
+     * Draws the geometry all projectors emitted this frame, called once per frame after block entities have been rendered.
+     * This also publishes the detail level counts of the frame
+     */
+    public static void flushHolograms() {
+        System.arraycopy(detailCounts, 0, lastFrameDetailCounts, 0, detailCounts.length);
+        Arrays.fill(detailCounts, 0);
+        lastFrameCulledCount = culledCount;
+        culledCount = 0;
 
+        LightConeRenderer.flush();
 
-            vertex(matrix4f, buffer, 0.125f, bottomY, 0.1f, r, g, b, startAlpha);
-            vertex(matrix4f, buffer, 0.125f, bottomY, 0.9f, r, g, b, startAlpha);
-            vertex(matrix4f, buffer, -0.25f, topY, 1, r, g, b, 0);
-            vertex(matrix4f, buffer, -0.25f, topY, 0, r, g, b, 0);
+        if (immediate == null) return;
+        immediate.draw();
+    }
 
-            vertex(matrix4f, buffer, -0.25f, topY, 0, r, g, b, 0);
-            vertex(matrix4f, buffer, -0.25f, topY, 1, r, g, b, 0);
-            vertex(matrix4f, buffer, 0.125f, bottomY, 0.9f, r, g, b, startAlpha);
-            vertex(matrix4f, buffer, 0.125f, bottomY, 0.1f, r, g, b, startAlpha);
+    /**
+     * @return A summary of how many projectors rendered at each detail level last frame, for the debug screen
+     */
+    public static String getDebugString() {
+        return String.format("Holograms: %d full, %d reduced, %d lights, %d hidden, %d culled",
+                lastFrameDetailCounts[DetailLevel.FULL.ordinal()],
+                lastFrameDetailCounts[DetailLevel.REDUCED.ordinal()],
+                lastFrameDetailCounts[DetailLevel.LIGHTS_ONLY.ordinal()],
+                lastFrameDetailCounts[DetailLevel.HIDDEN.ordinal()],
+                lastFrameCulledCount);
+    }
 
-            matrices.pop();
+    /**
+     * How much of a projector is rendered, chosen by its distance to the camera. Distances that are not
+     * configured follow the render distance, so by default holograms show up as far as they did without
+     * detail levels and only the outermost quarter is reduced
+     */
+    public enum DetailLevel {
+        FULL, REDUCED, LIGHTS_ONLY, HIDDEN;
+
+        /**
+         * @param squaredDistance The squared distance between camera and projector
+         * @param renderDistance  The distance up to which the projector would be rendered without detail levels
+         */
+        public static DetailLevel forDistance(double squaredDistance, double renderDistance) {
+            if (squaredDistance < square(getDistance(HolographicRendersConfig.lodNearDistance, renderDistance * 0.75))) return FULL;
+            if (squaredDistance < square(getDistance(HolographicRendersConfig.lodMidDistance, renderDistance * 0.9))) return REDUCED;
+            if (squaredDistance < square(getDistance(HolographicRendersConfig.lodCutoffDistance, renderDistance))) return LIGHTS_ONLY;
+            return HIDDEN;
         }
 
-        if (entity.getAlpha() != 0) {
-            HologramRenderLayer.setAlpha(entity.getAlpha());
-            matrices.push();
-
-            try {
-                ItemProjectionHandler.getDataProvider(entity, entity.getItem()).render(matrices, immediate, tickDelta, light, overlay, entity);
-            } catch (MalformedURLException ignored) {}
-
-            immediate.draw();
-            matrices.pop();
+        private static double getDistance(double configured, double automatic) {
+            return configured > 0 ? configured : automatic;
         }
-        matrices.pop();
-    }
 
-
-    private void vertex(Matrix4f matrix, VertexConsumer buffer, float x, float y, float z, float r, float g, float b, float a) {
-        buffer.vertex(matrix, x, y, z).color(r, g, b, a).next();
+        private static double square(double value) {
+            return value * value;
+        }
     }
 
 }
@@ -0,0 +1,468 @@
+package com.mystic.holographicrenders.client;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mystic.holographicrenders.HolographicRendersConfig;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL12;
+import org.lwjgl.system.MemoryUtil;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the textures shown by texture holograms. Downloading and decoding happens on a small
+ * background pool, only the final upload to the GPU is done on the render thread
+ * <p>
+ * Images are fetched through the {@link TextureDiskCache} and uploaded once per content hash,
+ * so identical images behind different urls share a single texture. Uploaded textures are kept
+ * within {@link HolographicRendersConfig#textureVramBudget}, together with the decoded images that
+ * are still waiting for their upload. Decoded images that were not drawn are freed first, then the least
+ * recently drawn textures. Textures of urls that holograms hold a reference to through {@link #acquire(String)}
+ * are never evicted, so the budget can be exceeded if the referenced textures alone do not fit
+ */
+public class RemoteTextureManager {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final int LOADER_THREADS = 2;
+    private static final int MAX_QUEUED_LOADS = 32;
+
+    private static final long INITIAL_RETRY_DELAY = 5000;
+    private static final long MAX_RETRY_DELAY = 300000;
+
+    private static final ThreadPoolExecutor LOADER = new ThreadPoolExecutor(LOADER_THREADS, LOADER_THREADS, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(MAX_QUEUED_LOADS),
+            new ThreadFactoryBuilder().setNameFormat("Hologram Texture Loader #%d").setDaemon(true).build());
+
+    static {
+        LOADER.allowCoreThreadTimeOut(true);
+    }
+
+    private static final ThreadLocal<int[]> ROW_BUFFER = ThreadLocal.withInitial(() -> new int[0]);
+
+    private static final Map<String, UrlEntry> URLS = new ConcurrentHashMap<>();
+    private static final Map<String, TextureEntry> TEXTURES = new ConcurrentHashMap<>();
+    private static final LinkedHashMap<String, TextureEntry> UPLOADED_TEXTURES = new LinkedHashMap<>(16, 0.75f, true);
+
+    private static long currentBytes = 0;
+    private static final AtomicLong PENDING_BYTES = new AtomicLong();
+    private static long hits = 0;
+    private static long misses = 0;
+    private static long evictions = 0;
+
+    /**
+     * Marks the texture of the given url as used by a hologram, it is not evicted until the reference
+     * is given back through {@link #release(String)}. Must be called on the render thread
+     *
+     * @param url The url of the texture
+     */
+    public static void acquire(String url) {
+        RenderSystem.assertThread(RenderSystem::isOnRenderThread);
+        URLS.computeIfAbsent(url, UrlEntry::new).references++;
+    }
+
+    /**
+     * Gives back a reference obtained from {@link #acquire(String)}, the texture can be evicted
+     * again once the last reference is released. Must be called on the render thread
+     *
+     * @param url The url of the texture
+     */
+    public static void release(String url) {
+        RenderSystem.assertThread(RenderSystem::isOnRenderThread);
+        final UrlEntry entry = URLS.get(url);
+        if (entry != null && entry.references > 0) entry.references--;
+    }
+
+    /**
+     * Gets the OpenGL texture for the given url, scheduling a load if it has not been requested yet
+     * or if a previously failed load is due for a retry. Must be called on the render thread
+     *
+     * @param url The url to get the texture for
+     * @return The texture id, or {@code 0} if the texture is not available (yet)
+     */
+    public static int getTexture(String url) {
+        RenderSystem.assertThread(RenderSystem::isOnRenderThread);
+
+        UrlEntry entry = URLS.get(url);
+        if (entry == null) {
+            entry = new UrlEntry(url);
+            URLS.put(url, entry);
+        }
+
+        if (entry.state == LoadState.LOADED && entry.texture.evicted) entry.state = LoadState.NEW;
+
+        switch (entry.state) {
+            case LOADED:
+                final TextureEntry texture = entry.texture;
+                if (texture.textureId != 0) {
+                    hits++;
+                    UPLOADED_TEXTURES.get(texture.hash);
+                    return texture.textureId;
+                }
+
+                misses++;
+                if (!texture.upload()) {
+                    // Freed by an eviction before it was drawn, load it again
+                    entry.state = LoadState.NEW;
+                    return 0;
+                }
+
+                UPLOADED_TEXTURES.put(texture.hash, texture);
+                currentBytes += texture.byteSize;
+                evictTextures();
+                return texture.textureId;
+            case FAILED:
+                if (System.currentTimeMillis() >= entry.retryAt) entry.submit();
+                return 0;
+            case NEW:
+                misses++;
+                entry.submit();
+                evictTextures();
+                return 0;
+            default:
+                evictTextures();
+                return 0;
+        }
+    }
+
+    private static void evictTextures() {
+        final long budget = HolographicRendersConfig.textureVramBudget;
+        if (currentBytes + PENDING_BYTES.get() <= budget) return;
+
+        final Set<TextureEntry> referenced = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (UrlEntry entry : URLS.values()) {
+            if (entry.references > 0 && entry.texture != null) referenced.add(entry.texture);
+        }
+
+        for (TextureEntry texture : TEXTURES.values()) {
+            if (currentBytes + PENDING_BYTES.get() <= budget) return;
+            if (texture.textureId != 0 || referenced.contains(texture)) continue;
+
+            if (texture.free()) {
+                TEXTURES.remove(texture.hash, texture);
+                evictions++;
+            }
+        }
+
+        final Iterator<TextureEntry> iterator = UPLOADED_TEXTURES.values().iterator();
+        while (currentBytes + PENDING_BYTES.get() > budget && iterator.hasNext()) {
+            final TextureEntry texture = iterator.next();
+            if (referenced.contains(texture)) continue;
+
+            iterator.remove();
+            TEXTURES.remove(texture.hash, texture);
+            texture.delete();
+
+            currentBytes -= texture.byteSize;
+            evictions++;
+        }
+    }
+
+    /**
+     * Deletes all textures and frees all decoded images, called when leaving a world
+     */
+    public static void clear() {
+        if (!RenderSystem.isOnRenderThread()) {
+            RenderSystem.recordRenderCall(RemoteTextureManager::clear);
+            return;
+        }
+
+        UPLOADED_TEXTURES.values().forEach(TextureEntry::delete);
+        UPLOADED_TEXTURES.clear();
+        currentBytes = 0;
+
+        TEXTURES.values().forEach(TextureEntry::free);
+        TEXTURES.clear();
+        URLS.clear();
+    }
+
+    /**
+     * @return The amount of texture memory currently in use by hologram textures, in bytes
+     */
+    public static long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    /**
+     * @return The amount of memory held by decoded images that are not uploaded yet, in bytes
+     */
+    public static long getPendingBytes() {
+        return PENDING_BYTES.get();
+    }
+
+    public static int getEntryCount() {
+        return UPLOADED_TEXTURES.size();
+    }
+
+    public static long getHits() {
+        return hits;
+    }
+
+    public static long getMisses() {
+        return misses;
+    }
+
+    public static long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Checks whether the last attempt at loading the given url failed
+     *
+     * @param url The url to check
+     */
+    public static boolean hasFailed(String url) {
+        final UrlEntry entry = URLS.get(url);
+        return entry != null && entry.state == LoadState.FAILED;
+    }
+
+    private static TextureEntry decode(TextureDiskCache.CachedImage cachedImage) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(cachedImage.data));
+        if (image == null) throw new IOException("Could not decode image " + cachedImage.hash);
+        image = downscale(image, HolographicRendersConfig.textureMaxSize);
+
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final ByteBuffer[] levels = new ByteBuffer[HolographicRendersConfig.textureMipmaps ? getMipmapLevels(width, height) : 1];
+
+        levels[0] = MemoryUtil.memAlloc(width * height * 4);
+        writeRgba(image, levels[0]);
+
+        for (int level = 1; level < levels.length; level++) {
+            final int levelWidth = Math.max(1, width >> level), levelHeight = Math.max(1, height >> level);
+            levels[level] = MemoryUtil.memAlloc(levelWidth * levelHeight * 4);
+            downsample(levels[level - 1], Math.max(1, width >> (level - 1)), Math.max(1, height >> (level - 1)), levels[level]);
+        }
+
+        return new TextureEntry(cachedImage.hash, levels, width, height);
+    }
+
+    /**
+     * Writes the pixels of the given image to the given buffer as RGBA in memory order, one row at a time.
+     * Works for buffers of either byte order
+     */
+    static void writeRgba(BufferedImage image, ByteBuffer target) {
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final boolean littleEndian = target.order() == ByteOrder.LITTLE_ENDIAN;
+
+        int[] row = ROW_BUFFER.get();
+        if (row.length < width) {
+            row = new int[width];
+            ROW_BUFFER.set(row);
+        }
+
+        int offset = 0;
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            for (int x = 0; x < width; x++) {
+                final int argb = row[x];
+                target.putInt(offset, littleEndian
+                        ? (argb & 0xFF00FF00) | ((argb >> 16) & 0xFF) | ((argb & 0xFF) << 16)
+                        : (argb << 8) | (argb >>> 24));
+                offset += 4;
+            }
+        }
+    }
+
+    static BufferedImage downscale(BufferedImage image, int maxSize) {
+        if (image.getWidth() <= maxSize && image.getHeight() <= maxSize) return image;
+
+        final double scale = maxSize / (double) Math.max(image.getWidth(), image.getHeight());
+        final int width = Math.max(1, (int) (image.getWidth() * scale));
+        final int height = Math.max(1, (int) (image.getHeight() * scale));
+
+        final BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D graphics = scaled.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(image, 0, 0, width, height, null);
+        graphics.dispose();
+
+        return scaled;
+    }
+
+    static int getMipmapLevels(int width, int height) {
+        return 32 - Integer.numberOfLeadingZeros(Math.max(width, height));
+    }
+
+    /**
+     * Writes the next mipmap level of the given RGBA image to the given buffer by averaging 2x2 blocks. The
+     * target has to hold half the width and height, at least one pixel each
+     */
+    static void downsample(ByteBuffer source, int width, int height, ByteBuffer target) {
+        final int targetWidth = Math.max(1, width >> 1);
+        final int targetHeight = Math.max(1, height >> 1);
+
+        for (int y = 0; y < targetHeight; y++) {
+            final int y0 = Math.min(y * 2, height - 1);
+            final int y1 = Math.min(y * 2 + 1, height - 1);
+            for (int x = 0; x < targetWidth; x++) {
+                final int x0 = Math.min(x * 2, width - 1);
+                final int x1 = Math.min(x * 2 + 1, width - 1);
+                for (int channel = 0; channel < 4; channel++) {
+                    final int sum = (source.get((y0 * width + x0) * 4 + channel) & 0xFF)
+                            + (source.get((y0 * width + x1) * 4 + channel) & 0xFF)
+                            + (source.get((y1 * width + x0) * 4 + channel) & 0xFF)
+                            + (source.get((y1 * width + x1) * 4 + channel) & 0xFF);
+                    target.put((y * targetWidth + x) * 4 + channel, (byte) (sum >> 2));
+                }
+            }
+        }
+    }
+
+    private enum LoadState {
+        NEW, LOADING, LOADED, FAILED
+    }
+
+    private static class UrlEntry {
+
+        private final String url;
+
+        private volatile LoadState state = LoadState.NEW;
+        private volatile TextureEntry texture = null;
+
+        private int failedAttempts = 0;
+        private long retryAt = 0;
+        private int references = 0;
+
+        private UrlEntry(String url) {
+            this.url = url;
+        }
+
+        private void submit() {
+            try {
+                state = LoadState.LOADING;
+                LOADER.execute(this::load);
+            } catch (RejectedExecutionException e) {
+                // The queue is full, try again next frame
+                state = LoadState.NEW;
+            }
+        }
+
+        private void load() {
+            try {
+                final TextureDiskCache.CachedImage image = TextureDiskCache.getInstance().fetch(url);
+
+                TextureEntry decoded = TEXTURES.get(image.hash);
+                if (decoded == null) {
+                    decoded = decode(image);
+                    final TextureEntry existing = TEXTURES.putIfAbsent(image.hash, decoded);
+                    if (existing != null) {
+                        // Another url with the same image was faster
+                        decoded.free();
+                        decoded = existing;
+                    } else {
+                        PENDING_BYTES.addAndGet(decoded.byteSize);
+                    }
+                }
+
+                texture = decoded;
+                state = LoadState.LOADED;
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Failed to retrieve texture from {}: {}", url, e.toString());
+                RenderSystem.recordRenderCall(this::markFailed);
+            }
+        }
+
+        private void markFailed() {
+            retryAt = System.currentTimeMillis() + Math.min(MAX_RETRY_DELAY, INITIAL_RETRY_DELAY << Math.min(failedAttempts, 16));
+            failedAttempts++;
+            state = LoadState.FAILED;
+        }
+    }
+
+    private static class TextureEntry {
+
+        private final String hash;
+        private final int width;
+        private final int height;
+        private final long byteSize;
+
+        private ByteBuffer[] levels;
+        private int textureId = 0;
+        private volatile boolean evicted = false;
+
+        private TextureEntry(String hash, ByteBuffer[] levels, int width, int height) {
+            this.hash = hash;
+            this.levels = levels;
+            this.width = width;
+            this.height = height;
+
+            long byteSize = 0;
+            for (ByteBuffer level : levels) byteSize += level.capacity();
+            this.byteSize = byteSize;
+        }
+
+        /**
+         * Uploads the decoded image and frees it
+         *
+         * @return {@code false} if the decoded image was already freed
+         */
+        private synchronized boolean upload() {
+            if (levels == null) return false;
+
+            GlStateManager.pixelStore(GL11.GL_UNPACK_ROW_LENGTH, 0);
+            GlStateManager.pixelStore(GL11.GL_UNPACK_SKIP_PIXELS, 0);
+            GlStateManager.pixelStore(GL11.GL_UNPACK_SKIP_ROWS, 0);
+
+            textureId = GL11.glGenTextures(); //Generate texture ID
+            GL11.glBindTexture(GL11.GL_TEXTURE_2D, textureId); //Bind texture ID
+
+            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL12.GL_CLAMP_TO_EDGE);
+            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL12.GL_CLAMP_TO_EDGE);
+
+            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, levels.length > 1 ? GL11.GL_NEAREST_MIPMAP_LINEAR : GL11.GL_NEAREST);
+            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST);
+            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL12.GL_TEXTURE_MAX_LEVEL, levels.length - 1);
+
+            for (int level = 0; level < levels.length; level++) {
+                GL11.glTexImage2D(GL11.GL_TEXTURE_2D, level, GL11.GL_RGBA, Math.max(1, width >> level), Math.max(1, height >> level), 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, levels[level]);
+                MemoryUtil.memFree(levels[level]);
+            }
+
+            levels = null;
+            PENDING_BYTES.addAndGet(-byteSize);
+            return true;
+        }
+
+        /**
+         * Frees the decoded image of a texture that was not uploaded
+         *
+         * @return {@code false} if there was nothing to free
+         */
+        private synchronized boolean free() {
+            if (levels == null) return false;
+
+            for (ByteBuffer level : levels) MemoryUtil.memFree(level);
+            levels = null;
+            evicted = true;
+
+            // Textures that lost the race for their hash were never counted
+            if (TEXTURES.get(hash) == this) PENDING_BYTES.addAndGet(-byteSize);
+            return true;
+        }
+
+        private void delete() {
+            evicted = true;
+            GlStateManager.deleteTexture(textureId);
+            textureId = 0;
+        }
+    }
+}
@@ -1,12 +1,11 @@
 package com.mystic.holographicrenders.client;
 
-import com.glisco.worldmesher.WorldMesh;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
-import com.mojang.blaze3d.platform.GlStateManager;
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mystic.holographicrenders.HolographicRenders;
+import com.mystic.holographicrenders.blocks.projector.AreaSnapshot;
 import com.mystic.holographicrenders.blocks.projector.ProjectorBlock;
 import com.mystic.holographicrenders.blocks.projector.ProjectorBlockEntity;
 import net.fabricmc.api.EnvType;
@@ -20,6 +19,7 @@ import net.minecraft.client.render.entity.EntityRenderDispatcher;
 import net.minecraft.client.render.model.json.ModelTransformation;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityDimensions;
 import net.minecraft.entity.EntityType;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.FilledMapItem;
@@ -34,29 +34,26 @@ import net.minecraft.world.World;
 
 import com.mystic.holographicrenders.gui.ImplementedInventory;
 import org.apache.commons.lang3.tuple.Pair;
-import org.lwjgl.BufferUtils;
-import org.lwjgl.opengl.GL11;
-import org.lwjgl.opengl.GL12;
-
-import javax.imageio.ImageIO;
-import javax.net.ssl.HttpsURLConnection;
-import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.io.IOException;
+
 import java.net.MalformedURLException;
-import java.net.URL;
-import java.nio.ByteBuffer;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Function;
 
 /**
  * @param <T>
  */
 public abstract class RenderDataProvider<T> {
 
+    /**
+     * Bounds of anything that fits into the block above the projector, used by default
+     */
+    protected static final Box DEFAULT_BOUNDS = new Box(0, 0, 0, 1, 1.5, 1);
+
+    /**
+     * Bounds of the 16x16 billboard used by textures and maps, which spins around the center of the projector
+     */
+    protected static final Box BILLBOARD_BOUNDS = new Box(0.5 - 0.86, 0.4, 0.5 - 0.86, 0.5 + 0.86, 2, 0.5 + 0.86);
+
     protected T data;
 
     protected RenderDataProvider(T data) {
@@ -66,6 +63,15 @@ public abstract class RenderDataProvider<T> {
     @Environment(EnvType.CLIENT)
     public abstract void render(MatrixStack matrices, VertexConsumerProvider.Immediate immediate, float tickDelta, int light, int overlay, BlockEntity be) throws MalformedURLException;
 
+    /**
+     * Renders a cheaper version of this hologram, used for projectors at medium distance.
+     * Defaults to the full render, providers with expensive geometry override this
+     */
+    @Environment(EnvType.CLIENT)
+    public void renderReduced(MatrixStack matrices, VertexConsumerProvider.Immediate immediate, float tickDelta, int light, int overlay, BlockEntity be) throws MalformedURLException {
+        render(matrices, immediate, tickDelta, light, overlay, be);
+    }
+
     public void toNbt(NbtCompound tag, ProjectorBlockEntity be) {
         tag.putString("RendererType", getTypeId().toString());
         tag.put("RenderData", write(be));
@@ -75,6 +81,52 @@ public abstract class RenderDataProvider<T> {
         read(tag.getCompound("RenderData"), be);
     }
 
+    /**
+     * Writes only the data of this provider, without its type
+     */
+    public NbtCompound writeData(ProjectorBlockEntity be) {
+        return write(be);
+    }
+
+    /**
+     * Reads data written by {@link #writeData(ProjectorBlockEntity)}
+     */
+    public void readData(NbtCompound tag, ProjectorBlockEntity be) {
+        read(tag, be);
+    }
+
+    /**
+     * Whether the data of this provider is just the stack in the given projector. The projector state
+     * packet then skips the data and the client restores it through {@link #readStackData(ItemStack)}
+     */
+    public boolean isStackData(ProjectorBlockEntity be) {
+        return false;
+    }
+
+    public void readStackData(ItemStack stack) {
+
+    }
+
+    /**
+     * Gets a conservative box around everything this provider renders, in the space of the
+     * projector before it is rotated to its facing. This is used for frustum culling
+     *
+     * @return The local bounds of this hologram
+     */
+    @Environment(EnvType.CLIENT)
+    public Box getRenderBounds() {
+        return DEFAULT_BOUNDS;
+    }
+
+    /**
+     * Called once the projector that owns this provider stops using it, either because it
+     * resolved a different provider or because it was removed. Providers holding shared
+     * client-side resources release them here
+     */
+    public void dispose() {
+
+    }
+
     public static void registerDefaultProviders() {
         RenderDataProviderRegistry.register(ItemProvider.ID, () -> new ItemProvider(ItemStack.EMPTY));
         RenderDataProviderRegistry.register(BlockProvider.ID, () -> new BlockProvider(Blocks.AIR.getDefaultState()));
@@ -82,7 +134,7 @@ public abstract class RenderDataProvider<T> {
         RenderDataProviderRegistry.register(AreaProvider.ID, () -> new AreaProvider(Pair.of(BlockPos.ORIGIN, BlockPos.ORIGIN)));
         RenderDataProviderRegistry.register(EmptyProvider.ID, () -> EmptyProvider.INSTANCE);
         RenderDataProviderRegistry.register(TextProvider.ID, () -> new TextProvider(Text.of("")));
-        RenderDataProviderRegistry.register(TextureProvider.ID, () -> new TextureProvider(0));
+        RenderDataProviderRegistry.register(TextureProvider.ID, () -> new TextureProvider(""));
         RenderDataProviderRegistry.register(MapProvider.ID, () -> new MapProvider(-1));
     }
 
@@ -130,6 +182,16 @@ public abstract class RenderDataProvider<T> {
             data = ItemStack.fromNbt(tag.getCompound("Item"));
         }
 
+        @Override
+        public boolean isStackData(ProjectorBlockEntity be) {
+            return ItemStack.areEqual(data, be.getItem());
+        }
+
+        @Override
+        public void readStackData(ItemStack stack) {
+            data = stack.copy();
+        }
+
         @Override
         public Identifier getTypeId() {
             return ID;
@@ -184,6 +246,7 @@ public abstract class RenderDataProvider<T> {
 
         private static final Identifier ID = new Identifier(HolographicRenders.MOD_ID, "entity");
         private NbtCompound entityTag = null;
+        private HologramEntityCache.Handle cacheHandle = null;
 
         protected EntityProvider(Entity data) {
             super(data);
@@ -196,6 +259,19 @@ public abstract class RenderDataProvider<T> {
             return new EntityProvider(entity);
         }
 
+        /**
+         * Creates a provider for the entity described by the given NBT. The entity itself is only
+         * loaded on the client when first rendered, and is shared with all other projectors showing identical NBT
+         *
+         * @param entityTag The captured entity NBT, as written by {@link Entity#saveSelfNbt(NbtCompound)}
+         * @return The provider for the given entity
+         */
+        public static EntityProvider of(NbtCompound entityTag) {
+            final EntityProvider provider = new EntityProvider(null);
+            provider.entityTag = entityTag;
+            return provider;
+        }
+
         @Override
         @Environment(EnvType.CLIENT)
         public void render(MatrixStack matrices, VertexConsumerProvider.Immediate immediate, float tickDelta, int light, int overlay, BlockEntity be) {
@@ -206,19 +282,64 @@ public abstract class RenderDataProvider<T> {
             matrices.multiply(Vec3f.POSITIVE_Y.getDegreesQuaternion((float) (System.currentTimeMillis() / 60d % 360d)));
             matrices.scale(0.5f, 0.5f, 0.5f); //TODO make this usable with scaling sliders
 
+            renderEntity(matrices, immediate, light);
+        }
+
+        /**
+         * Draws the entity in a static pose instead of spinning it
+         */
+        @Override
+        @Environment(EnvType.CLIENT)
+        public void renderReduced(MatrixStack matrices, VertexConsumerProvider.Immediate immediate, float tickDelta, int light, int overlay, BlockEntity be) {
+
+            if (!tryLoadEntity(MinecraftClient.getInstance().world)) return;
+
+            matrices.translate(0.5, 0.75, 0.5);
+            matrices.scale(0.5f, 0.5f, 0.5f);
+
+            renderEntity(matrices, immediate, light);
+        }
+
+        @Environment(EnvType.CLIENT)
+        private void renderEntity(MatrixStack matrices, VertexConsumerProvider.Immediate immediate, int light) {
             final EntityRenderDispatcher entityRenderDispatcher = MinecraftClient.getInstance().getEntityRenderDispatcher();
             entityRenderDispatcher.setRenderShadows(false);
             entityRenderDispatcher.render(data, 0, 0, 0, 0, 0, matrices, immediate, light);
             entityRenderDispatcher.setRenderShadows(true);
         }
 
+        @Override
+        @Environment(EnvType.CLIENT)
+        public Box getRenderBounds() {
+            if (entityTag == null) return DEFAULT_BOUNDS;
+
+            return EntityType.fromNbt(entityTag).map(type -> {
+                final EntityDimensions dimensions = type.getDimensions();
+                final double radius = 0.5 * dimensions.width * Math.sqrt(2) / 2;
+                return new Box(0.5 - radius, 0.75, 0.5 - radius, 0.5 + radius, 0.75 + 0.5 * dimensions.height, 0.5 + radius);
+            }).orElse(DEFAULT_BOUNDS);
+        }
+
         private boolean tryLoadEntity(World world) {
-            if (data != null) return true;
-            if (world == null) return false;
-            data = EntityType.loadEntityWithPassengers(entityTag, world, Function.identity());
+            if (data != null && cacheHandle == null) return true;
+            if (world == null || entityTag == null) return false;
+            if (cacheHandle == null) cacheHandle = HologramEntityCache.acquire(entityTag);
+            data = cacheHandle.getEntity(world);
             return data != null;
         }
 
+        private void releaseEntity() {
+            if (cacheHandle == null) return;
+            HologramEntityCache.release(cacheHandle);
+            cacheHandle = null;
+            data = null;
+        }
+
+        @Override
+        public void dispose() {
+            releaseEntity();
+        }
+
         @Override
         public NbtCompound write(ProjectorBlockEntity be) {
             NbtCompound tag = new NbtCompound();
@@ -228,7 +349,11 @@ public abstract class RenderDataProvider<T> {
 
         @Override
         public void read(NbtCompound tag, ProjectorBlockEntity be) {
-            entityTag = tag.getCompound("Entity");
+            final NbtCompound newTag = tag.getCompound("Entity");
+            if (newTag.equals(entityTag)) return;
+
+            releaseEntity();
+            entityTag = newTag;
             data = null;
         }
 
@@ -255,6 +380,13 @@ public abstract class RenderDataProvider<T> {
             drawText(matrices, be, 0, data);
         }
 
+        @Override
+        @Environment(EnvType.CLIENT)
+        public Box getRenderBounds() {
+            final double radius = 0.05 * MinecraftClient.getInstance().textRenderer.getWidth(data) / 2;
+            return new Box(0.5 - radius, 0.55, 0.5 - radius, 0.5 + radius, 1, 0.5 + radius);
+        }
+
         public static void drawText(MatrixStack matrices, BlockEntity be, int color, Text text) {
             matrices.translate(0.5, 0.0, 0.5);
 
@@ -313,50 +445,67 @@ public abstract class RenderDataProvider<T> {
     }
 
     public static class AreaProvider extends RenderDataProvider<Pair<BlockPos, BlockPos>> {
-        private static LoadingCache<Pair<BlockPos, BlockPos>, AreaProvider> cache = CacheBuilder.newBuilder()
-                .maximumSize(20)
-                .expireAfterAccess(20, TimeUnit.SECONDS)
-                .build(new CacheLoader<org.apache.commons.lang3.tuple.Pair<BlockPos, BlockPos>, AreaProvider>() {
-                    @Override
-                    public AreaProvider load(Pair<BlockPos, BlockPos> key) {
-                        return new AreaProvider(key);
-                    }
-                });
 
         private static final Identifier ID = new Identifier(HolographicRenders.MOD_ID, "area");
 
-        private final MinecraftClient client;
-        private long lastUpdateTick;
-        private WorldMesh mesh;
+        private AreaMeshRegistry.Handle meshHandle = null;
+        private AreaSnapshot meshSnapshot = null;
 
         protected AreaProvider(Pair<BlockPos, BlockPos> data) {
             super(data);
-            this.client = MinecraftClient.getInstance();
-            //TODO fix this argh
-            this.lastUpdateTick = this.client.world.getTime();
-            invalidateCache();
         }
 
-        public static AreaProvider from(BlockPos start, BlockPos end) throws ExecutionException {
-            return cache.get(Pair.of(start, end));
+        public static AreaProvider from(BlockPos start, BlockPos end) {
+            return new AreaProvider(Pair.of(start, end));
         }
 
         @Override
         @Environment(EnvType.CLIENT)
         public void render(MatrixStack matrices, VertexConsumerProvider.Immediate immediate, float tickDelta, int light, int overlay, BlockEntity be) {
+            renderMesh(matrices, be, false);
+        }
+
+        /**
+         * Draws only the solid layer of the mesh, skipping cutout and translucent blocks like foliage, glass and water
+         */
+        @Override
+        @Environment(EnvType.CLIENT)
+        public void renderReduced(MatrixStack matrices, VertexConsumerProvider.Immediate immediate, float tickDelta, int light, int overlay, BlockEntity be) {
+            renderMesh(matrices, be, true);
+        }
+
+        @Environment(EnvType.CLIENT)
+        private void renderMesh(MatrixStack matrices, BlockEntity be, boolean solidOnly) {
+
+            final World world = MinecraftClient.getInstance().world;
 
-            if (client.world.getTime() - lastUpdateTick > 1200) {
-                lastUpdateTick = client.world.getTime();
-                mesh.scheduleRebuild();
+            // Mesh the snapshot the server took if there is one, so areas outside of the loaded chunks show up
+            AreaSnapshot snapshot = ((ProjectorBlockEntity) be).getAreaSnapshot();
+            if (snapshot != null && !snapshot.covers(data.getLeft(), data.getRight())) snapshot = null;
+            if (snapshot == null ? meshSnapshot != null : meshSnapshot == null || snapshot.getId() != meshSnapshot.getId()) releaseMesh();
+
+            if (meshHandle == null) {
+                meshHandle = AreaMeshRegistry.acquire(world, snapshot, data.getLeft(), data.getRight());
+            } else if (snapshot != null && snapshot != meshSnapshot) {
+                // Newer version of the same snapshot from a full resync, live deltas already updated the mesh
+                meshHandle.updateSnapshot(snapshot, null);
             }
+            meshSnapshot = snapshot;
+            final AreaMesh mesh = meshHandle.getMesh(world);
+            mesh.setAnchor(be.getPos());
 
-            if (!mesh.canRender()) {
+            if (!solidOnly && mesh.getBuiltSections() < mesh.getSectionCount()) {
+                matrices.push();
                 matrices.translate(0.5, 0, 0.5);
                 matrices.scale(0.5f, 0.5f, 0.5f);
                 matrices.translate(-0.5, 0, -0.5);
-                matrices.translate(0, 0.65, 0);
-                TextProvider.drawText(matrices, be, 0, Text.of("§b[§aScanning§b]"));
-            } else {
+                //Below the partially built mesh once sections start to show up
+                if (!mesh.canRender()) matrices.translate(0, 0.65, 0);
+                TextProvider.drawText(matrices, be, 0, Text.of("§b[§aScanning " + mesh.getBuiltSections() + "/" + mesh.getSectionCount() + "§b]"));
+                matrices.pop();
+            }
+
+            if (mesh.canRender()) {
                 matrices.translate(0.5, 0.5, 0.5);
                 matrices.multiply(Vec3f.POSITIVE_Y.getDegreesQuaternion((float) (System.currentTimeMillis() / 60d % 360d))); //Rotate Speed
                 matrices.scale(0.075f, 0.075f, 0.075f); //TODO make this usable with scaling sliders
@@ -366,21 +515,31 @@ public abstract class RenderDataProvider<T> {
 
                 matrices.translate(-xSize / 2f, 0, -zSize / 2f); //TODO make this usable with translation sliders
 
-                mesh.render(matrices.peek().getModel());
+                meshHandle.render(matrices.peek().getModel(), ((ProjectorBlockEntity) be).getAlpha(), solidOnly);
             }
         }
 
+        @Override
         @Environment(EnvType.CLIENT)
-        public void invalidateCache() {
-            mesh = new WorldMesh.Builder(MinecraftClient.getInstance().world, data.getLeft(), data.getRight())
-                    .renderActions(HologramRenderLayer.beginAction, HologramRenderLayer.endAction)
-                    .build();
-            rebuild();
+        public Box getRenderBounds() {
+            int xSize = 1 + Math.max(data.getLeft().getX(), data.getRight().getX()) - Math.min(data.getLeft().getX(), data.getRight().getX());
+            int ySize = 1 + Math.max(data.getLeft().getY(), data.getRight().getY()) - Math.min(data.getLeft().getY(), data.getRight().getY());
+            int zSize = 1 + Math.max(data.getLeft().getZ(), data.getRight().getZ()) - Math.min(data.getLeft().getZ(), data.getRight().getZ());
+
+            final double radius = 0.075 * Math.sqrt(xSize * xSize + zSize * zSize) / 2;
+            return new Box(0.5 - radius, 0.5, 0.5 - radius, 0.5 + radius, 0.5 + 0.075 * ySize, 0.5 + radius).union(DEFAULT_BOUNDS);
         }
 
-        @Environment(EnvType.CLIENT)
-        public void rebuild() {
-            mesh.scheduleRebuild();
+        private void releaseMesh() {
+            if (meshHandle == null) return;
+            AreaMeshRegistry.release(meshHandle);
+            meshHandle = null;
+            meshSnapshot = null;
+        }
+
+        @Override
+        public void dispose() {
+            releaseMesh();
         }
 
         @Override
@@ -399,8 +558,8 @@ public abstract class RenderDataProvider<T> {
             BlockPos end = BlockPos.fromLong(tag.getLong("End"));
 
             if (!(start.equals(data.getLeft()) && end.equals(data.getRight()))) {
+                releaseMesh();
                 this.data = Pair.of(start, end);
-                invalidateCache();
             }
         }
 
@@ -410,127 +569,78 @@ public abstract class RenderDataProvider<T> {
         }
     }
 
-    public static class TextureProvider extends RenderDataProvider<Integer> {
+    public static class TextureProvider extends RenderDataProvider<String> {
         private static final Identifier ID = new Identifier(HolographicRenders.MOD_ID, "texture");
 
-        protected TextureProvider(int data) {
+        private static final Text LOADING_TEXT = Text.of("§b[§aLoading§b]");
+        private static final Text FAILED_TEXT = Text.of("§b[§cFailed§b]");
+
+        private String acquiredUrl = null;
+
+        protected TextureProvider(String data) {
             super(data);
         }
 
         public static TextureProvider of(String url) {
-            return new TextureProvider(loadTexture(url));
+            return new TextureProvider(url);
         }
 
         @Override
+        @Environment(EnvType.CLIENT)
         public void render(MatrixStack matrices, VertexConsumerProvider.Immediate immediate, float tickDelta, int light, int overlay, BlockEntity be) {
 
-            matrices.push();
-            matrices.scale(0.1f, -0.1f, 0.1f);
-            matrices.translate(5, -20, 5);
+            // Keeps the texture from being evicted while this projector shows it
+            if (!data.equals(acquiredUrl)) {
+                releaseTexture();
+                RemoteTextureManager.acquire(data);
+                acquiredUrl = data;
+            }
+
+            final int texture = RemoteTextureManager.getTexture(data);
+            if (texture == 0) {
+                matrices.translate(0.5, 0, 0.5);
+                matrices.scale(0.5f, 0.5f, 0.5f);
+                matrices.translate(-0.5, 0, -0.5);
+                matrices.translate(0, 0.65, 0);
+                TextProvider.drawText(matrices, be, 0, RemoteTextureManager.hasFailed(data) ? FAILED_TEXT : LOADING_TEXT);
+                return;
+            }
 
             PlayerEntity player = MinecraftClient.getInstance().player;
             double x = player.getX() - be.getPos().getX() - 0.5;
             double z = player.getZ() - be.getPos().getZ() - 0.5;
             float rot = (float) MathHelper.atan2(z, x);
 
-            matrices.multiply(Vec3f.POSITIVE_Y.getRadialQuaternion(-rot));
-            matrices.multiply(Vec3f.POSITIVE_Y.getDegreesQuaternion(90));
-
-            matrices.translate(-7.5, 0, 0);
-
-
-            Identifier identifierTexture = new Identifier(HolographicRenders.MOD_ID, "yeet.png");
-            TextureRenderLayer textureRenderLayer = new TextureRenderLayer(RenderLayer.getText(identifierTexture));
-            VertexFormat vertexFormat = textureRenderLayer.getVertexFormat();
-            BufferBuilder bufferBuilder = new BufferBuilder(5);
-            bufferBuilder.begin(7, vertexFormat);
-            DrawQuad(data, 0.0f, 0.0f, 16.0f, 16.0f, matrices, bufferBuilder);
-            bufferBuilder.end();
-            RenderSystem.enableDepthTest();
-            BufferRenderer.draw(bufferBuilder);
-            matrices.pop();
+            TextureQuadRenderer.draw(matrices, texture, rot);
         }
 
-        public void DrawQuad(int texture, float offX, float offY, float width, float height, MatrixStack stack, BufferBuilder buffer) {
-            GL11.glBindTexture(GL11.GL_TEXTURE_2D, texture);
-            Matrix4f matrix = stack.peek().getModel();
-            float x2 = offX + width, y2 = offY + height;
-            buffer.vertex(matrix, offX, offY, 1.0f).texture(0.0f, 0.0f).next();
-            buffer.vertex(matrix, offX, y2, 1.0f).texture(0.0f, 1.0f).next();
-            buffer.vertex(matrix, x2, y2, 1.0f).texture(1.0f, 1.0f).next();
-            buffer.vertex(matrix, x2, offY, 1.0f).texture(1.0f, 0.0f).next();
+        private void releaseTexture() {
+            if (acquiredUrl == null) return;
+            RemoteTextureManager.release(acquiredUrl);
+            acquiredUrl = null;
         }
 
-        private static final Map<String, Integer> IMAGE_CACHE = new HashMap<>();
-
-        public static int loadTexture(String loc) {
-            if (IMAGE_CACHE.containsKey(loc)) {
-                return IMAGE_CACHE.get(loc);
-            }
-            GlStateManager.pixelStore(GL11.GL_UNPACK_SKIP_PIXELS, 0);
-            GlStateManager.pixelStore(GL11.GL_UNPACK_SKIP_ROWS, 0);
-            BufferedImage image = loadImage(loc);
-            if (image != null) {
-                int[] pixels = new int[image.getWidth() * image.getHeight()];
-                image.getRGB(0, 0, image.getWidth(), image.getHeight(), pixels, 0, image.getWidth());
-
-                ByteBuffer buffer = BufferUtils.createByteBuffer(image.getWidth() * image.getHeight() * 4);
-                Color c;
-
-                for (int y = 0; y < image.getHeight(); y++) {
-                    for (int x = 0; x < image.getWidth(); x++) {
-                        c = new Color(image.getRGB(x, y));
-                        buffer.put((byte) c.getRed());
-                        buffer.put((byte) c.getGreen());
-                        buffer.put((byte) c.getBlue());
-                        buffer.put((byte) c.getAlpha());
-                    }
-                }
-                buffer.flip();
-
-                int textureID = GL11.glGenTextures(); //Generate texture ID
-                GL11.glBindTexture(GL11.GL_TEXTURE_2D, textureID); //Bind texture ID
-
-                GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL12.GL_CLAMP_TO_EDGE);
-                GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL12.GL_CLAMP_TO_EDGE);
-
-                GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_NEAREST);
-                GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST);
-
-                GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA, image.getWidth(), image.getHeight(), 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, buffer);
-                IMAGE_CACHE.put(loc, textureID);
-                return textureID;
-            }
-            IMAGE_CACHE.put(loc, 0);
-            return 0;
+        @Override
+        public void dispose() {
+            releaseTexture();
         }
 
-
-        private static BufferedImage loadImage(String loc) {
-            try {
-                URL url = new URL(loc);
-                HttpsURLConnection conn = (HttpsURLConnection) url.openConnection();
-                if (conn.getContentType().contains("png") || conn.getContentType().contains("jpeg") || conn.getContentType().contains("jpg")
-                        || conn.getContentType().contains("tiff") || conn.getContentType().contains("bmp")) {
-                    return ImageIO.read(url);
-                }
-                conn.disconnect();
-            } catch (IOException ignored) {} catch (NullPointerException e) {
-                System.out.println("Failed to get retrieve texture from " + loc + "!");
-            }
-            return null;
+        @Override
+        @Environment(EnvType.CLIENT)
+        public Box getRenderBounds() {
+            return BILLBOARD_BOUNDS;
         }
 
         @Override
         protected NbtCompound write(ProjectorBlockEntity be) {
             final NbtCompound tag = new NbtCompound();
-            tag.putInt("Texture", data);
+            tag.putString("URL", data);
             return tag;
         }
 
         @Override
         protected void read(NbtCompound tag, ProjectorBlockEntity be) {
-            this.data = tag.getInt("Texture");
+            this.data = tag.getString("URL");
         }
 
         @Override
@@ -622,6 +732,12 @@ public abstract class RenderDataProvider<T> {
                 matrices.pop();
             }
 
+            @Override
+            @Environment(EnvType.CLIENT)
+            public Box getRenderBounds() {
+                return BILLBOARD_BOUNDS;
+            }
+
             @Override
             protected NbtCompound write(ProjectorBlockEntity be) {
                 final NbtCompound tag = new NbtCompound();
@@ -1,21 +1,70 @@
 package com.mystic.holographicrenders.client;
 
 import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.function.Supplier;
 
+/**
+ * Registry of all {@link RenderDataProvider} types. Besides their {@link Identifier}, types get a numeric id
+ * in registration order, which is what the projector state packet sends. Registration order can differ between
+ * server and client, so the server sends its list of type ids when a player joins
+ */
 public class RenderDataProviderRegistry {
 
     private static final HashMap<Identifier, Supplier<RenderDataProvider<?>>> REGISTRY = new HashMap<>();
+    private static final HashMap<Identifier, Integer> RAW_IDS = new HashMap<>();
+    private static final List<Identifier> IDS = new ArrayList<>();
+
+    private static List<Identifier> remoteIds = Collections.emptyList();
 
     public static void register(Identifier typeId, Supplier<RenderDataProvider<?>> factory) {
         if (REGISTRY.containsKey(typeId)) throw new IllegalStateException("Tried to double-register provider with type id" + typeId + "!");
         REGISTRY.put(typeId, factory);
+        RAW_IDS.put(typeId, IDS.size());
+        IDS.add(typeId);
     }
 
     public static RenderDataProvider<?> getProvider(RenderDataProvider<?> previousProvider, Identifier typeId) {
-        return previousProvider != null && previousProvider.getTypeId().equals(typeId) ? previousProvider : REGISTRY.get(typeId).get();
+        if (previousProvider != null && previousProvider.getTypeId().equals(typeId)) return previousProvider;
+
+        final Supplier<RenderDataProvider<?>> factory = REGISTRY.get(typeId);
+        return factory == null ? RenderDataProvider.EmptyProvider.INSTANCE : factory.get();
+    }
+
+    /**
+     * @return The numeric id of the given type on this side
+     */
+    public static int getRawId(Identifier typeId) {
+        return RAW_IDS.getOrDefault(typeId, -1);
+    }
+
+    /**
+     * @return All registered type ids, in the order of their numeric ids
+     */
+    public static List<Identifier> getIds() {
+        return Collections.unmodifiableList(IDS);
+    }
+
+    /**
+     * Sets the type ids of the server this client is connected to
+     *
+     * @param ids The type ids of the server, in the order of their numeric ids
+     */
+    public static void setRemoteIds(List<Identifier> ids) {
+        remoteIds = ids;
+    }
+
+    /**
+     * @param rawId A numeric id received from the server
+     * @return The type id it stands for, or {@code null} if the server did not send it
+     */
+    public static @Nullable Identifier getRemoteId(int rawId) {
+        return rawId >= 0 && rawId < remoteIds.size() ? remoteIds.get(rawId) : null;
     }
 
 }
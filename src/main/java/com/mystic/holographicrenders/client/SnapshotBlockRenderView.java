@@ -0,0 +1,67 @@
+package com.mystic.holographicrenders.client;
+
+import com.mystic.holographicrenders.blocks.projector.AreaSnapshot;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.BlockRenderView;
+import net.minecraft.world.LightType;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.light.LightingProvider;
+import net.minecraft.world.level.ColorResolver;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A {@link BlockRenderView} over an {@link AreaSnapshot}, so area holograms can be meshed without the client having
+ * the area loaded. Snapshots carry no light, holograms are drawn fully lit. Biome colors come from the client world
+ * <p>
+ * Snapshots are immutable, so this view can be read from the mesher threads
+ */
+public class SnapshotBlockRenderView implements BlockRenderView {
+
+    private final AreaSnapshot snapshot;
+    private final World world;
+
+    public SnapshotBlockRenderView(AreaSnapshot snapshot, World world) {
+        this.snapshot = snapshot;
+        this.world = world;
+    }
+
+    @Override
+    public float getBrightness(Direction direction, boolean shaded) {
+        return world.getBrightness(direction, shaded);
+    }
+
+    @Override
+    public LightingProvider getLightingProvider() {
+        return world.getLightingProvider();
+    }
+
+    @Override
+    public int getLightLevel(LightType type, BlockPos pos) {
+        return 15;
+    }
+
+    @Override
+    public int getColor(BlockPos pos, ColorResolver colorResolver) {
+        return world.getColor(pos, colorResolver);
+    }
+
+    @Nullable
+    @Override
+    public BlockEntity getBlockEntity(BlockPos pos) {
+        return null;
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        return snapshot.getBlockState(pos);
+    }
+
+    @Override
+    public FluidState getFluidState(BlockPos pos) {
+        return snapshot.getBlockState(pos).getFluidState();
+    }
+}
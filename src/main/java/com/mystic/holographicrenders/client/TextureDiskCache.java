@@ -0,0 +1,279 @@
+package com.mystic.holographicrenders.client;
+
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.mystic.holographicrenders.HolographicRenders;
+import com.mystic.holographicrenders.HolographicRendersConfig;
+import net.fabricmc.loader.api.FabricLoader;
+import org.apache.commons.io.IOUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Persistent cache for the images behind texture holograms. Images are stored once per content hash,
+ * urls map to the hash they last resolved to and are revalidated using {@code ETag} and {@code Last-Modified}
+ * <p>
+ * Safe to use from the texture loader threads. Only reads and updates of the index hold the lock,
+ * downloads of different urls run in parallel
+ */
+public class TextureDiskCache {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final int CONNECT_TIMEOUT = 10000;
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private static TextureDiskCache instance = null;
+
+    private final Path dir;
+    private final Path indexPath;
+    private Map<String, UrlEntry> index = null;
+    private long currentSize = 0;
+
+    public TextureDiskCache(Path dir) {
+        this.dir = dir;
+        this.indexPath = dir.resolve("index.json");
+    }
+
+    /**
+     * @return The cache in the game directory
+     */
+    public static synchronized TextureDiskCache getInstance() {
+        if (instance == null) instance = new TextureDiskCache(FabricLoader.getInstance().getGameDir().resolve(HolographicRenders.MOD_ID).resolve("texture_cache"));
+        return instance;
+    }
+
+    /**
+     * Fetches the image behind the given url, using the cached copy if the server confirms it is
+     * still up to date, cannot be reached or answers with an error
+     *
+     * @param loc The url to fetch
+     * @return The image bytes and their content hash
+     * @throws IOException If the image could neither be downloaded nor found in the cache
+     */
+    public CachedImage fetch(String loc) throws IOException {
+        final UrlEntry cached = getEntry(loc);
+        try {
+            return download(loc, cached);
+        } catch (NoSuchFileException e) {
+            // The cached copy was evicted while it was revalidated
+            if (cached == null) throw e;
+            return download(loc, null);
+        }
+    }
+
+    private CachedImage download(String loc, @Nullable UrlEntry cached) throws IOException {
+        final URLConnection conn;
+        final int status;
+        try {
+            conn = new URL(loc).openConnection();
+            conn.setConnectTimeout(CONNECT_TIMEOUT);
+            conn.setReadTimeout(CONNECT_TIMEOUT);
+
+            if (cached != null) {
+                if (cached.etag != null) conn.setRequestProperty("If-None-Match", cached.etag);
+                if (cached.lastModified != 0) conn.setIfModifiedSince(cached.lastModified);
+            }
+
+            status = conn instanceof HttpURLConnection ? ((HttpURLConnection) conn).getResponseCode() : HttpURLConnection.HTTP_OK;
+        } catch (IOException e) {
+            if (cached != null) return readBlob(cached.hash);
+            throw e;
+        }
+
+        if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+            ((HttpURLConnection) conn).disconnect();
+            return readBlob(cached.hash);
+        }
+
+        try {
+            if (status / 100 != 2) throw new IOException("Received status " + status + " from " + loc);
+
+            final String contentType = conn.getContentType();
+            if (contentType == null) throw new IOException("No content type received from " + loc);
+            if (!(contentType.contains("png") || contentType.contains("jpeg") || contentType.contains("jpg")
+                    || contentType.contains("tiff") || contentType.contains("bmp"))) {
+                throw new IOException("Unsupported content type " + contentType + " received from " + loc);
+            }
+
+            final byte[] data;
+            try (InputStream stream = conn.getInputStream()) {
+                data = IOUtils.toByteArray(stream);
+            }
+
+            final String hash = Hashing.sha256().hashBytes(data).toString();
+            store(loc, new UrlEntry(hash, conn.getHeaderField("ETag"), conn.getLastModified()), data);
+            return new CachedImage(hash, data);
+        } catch (IOException e) {
+            if (cached == null) throw e;
+
+            // A server that has trouble right now should not take down holograms that worked before
+            LOGGER.warn("Could not revalidate texture {}, using the cached copy: {}", loc, e.getMessage());
+            return readBlob(cached.hash);
+        } finally {
+            if (conn instanceof HttpURLConnection) ((HttpURLConnection) conn).disconnect();
+        }
+    }
+
+    /**
+     * @return The entry of the given url, or {@code null} if it is not cached or its image was evicted
+     */
+    private synchronized @Nullable UrlEntry getEntry(String loc) throws IOException {
+        loadIndex();
+
+        final UrlEntry entry = index.get(loc);
+        return entry != null && Files.exists(blobPath(entry.hash)) ? entry : null;
+    }
+
+    private void store(String loc, UrlEntry entry, byte[] data) throws IOException {
+        // Written outside the lock, concurrent downloads of the same image each use their own temporary file
+        Files.createDirectories(dir);
+        final Path temp = Files.createTempFile(dir, entry.hash, ".tmp");
+        try {
+            Files.write(temp, data);
+            commit(loc, entry, temp, data.length);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private synchronized void commit(String loc, UrlEntry entry, Path temp, long size) throws IOException {
+        loadIndex();
+
+        final Path blob = blobPath(entry.hash);
+        if (!Files.exists(blob)) {
+            Files.move(temp, blob, StandardCopyOption.REPLACE_EXISTING);
+            currentSize += size;
+        } else {
+            touch(blob);
+        }
+
+        index.put(loc, entry);
+        if (currentSize > HolographicRendersConfig.textureDiskCacheSize) evict();
+        saveIndex();
+    }
+
+    private CachedImage readBlob(String hash) throws IOException {
+        final Path blob = blobPath(hash);
+        final byte[] data = Files.readAllBytes(blob);
+        touch(blob);
+        return new CachedImage(hash, data);
+    }
+
+    private void evict() throws IOException {
+        final List<Path> blobs = listBlobs();
+        final Map<Path, FileTime> accessTimes = new HashMap<>();
+        for (Path blob : blobs) {
+            accessTimes.put(blob, Files.getLastModifiedTime(blob));
+        }
+        blobs.sort(Comparator.comparing(accessTimes::get));
+
+        // Evict down to 90% of the limit, so the directory is not listed again after every download
+        final long target = HolographicRendersConfig.textureDiskCacheSize / 10 * 9;
+        currentSize = computeSize(blobs);
+
+        final Set<String> evictedHashes = new HashSet<>();
+        for (Path blob : blobs) {
+            if (currentSize <= target) break;
+            currentSize -= Files.size(blob);
+            Files.deleteIfExists(blob);
+
+            final String fileName = blob.getFileName().toString();
+            evictedHashes.add(fileName.substring(0, fileName.length() - 4));
+        }
+
+        index.values().removeIf(entry -> evictedHashes.contains(entry.hash));
+    }
+
+    private List<Path> listBlobs() throws IOException {
+        final List<Path> blobs = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(path -> path.toString().endsWith(".png")).forEach(blobs::add);
+        }
+        return blobs;
+    }
+
+    private static long computeSize(List<Path> blobs) {
+        long size = 0;
+        for (Path blob : blobs) {
+            try {
+                size += Files.size(blob);
+            } catch (IOException ignored) {}
+        }
+        return size;
+    }
+
+    private static void touch(Path blob) throws IOException {
+        Files.setLastModifiedTime(blob, FileTime.fromMillis(System.currentTimeMillis()));
+    }
+
+    private Path blobPath(String hash) {
+        // All blobs get the same extension, the image decoder does not care about it
+        return dir.resolve(hash + ".png");
+    }
+
+    private void loadIndex() throws IOException {
+        if (index != null) return;
+
+        Files.createDirectories(dir);
+        index = new HashMap<>();
+        currentSize = computeSize(listBlobs());
+        if (!Files.exists(indexPath)) return;
+
+        try (Reader reader = Files.newBufferedReader(indexPath)) {
+            final Map<String, UrlEntry> loaded = GSON.fromJson(reader, new TypeToken<Map<String, UrlEntry>>() {}.getType());
+            if (loaded != null) index.putAll(loaded);
+        } catch (JsonParseException e) {
+            LOGGER.warn("Texture cache index is corrupt, starting from scratch");
+        }
+    }
+
+    private void saveIndex() throws IOException {
+        final Path temp = dir.resolve("index.json.tmp");
+        try (Writer writer = Files.newBufferedWriter(temp)) {
+            GSON.toJson(index, writer);
+        }
+        Files.move(temp, indexPath, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public static class CachedImage {
+
+        public final String hash;
+        public final byte[] data;
+
+        private CachedImage(String hash, byte[] data) {
+            this.hash = hash;
+            this.data = data;
+        }
+    }
+
+    private static class UrlEntry {
+
+        private final String hash;
+        private final String etag;
+        private final long lastModified;
+
+        private UrlEntry(String hash, String etag, long lastModified) {
+            this.hash = hash;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.mystic.holographicrenders.client;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import net.minecraft.client.render.VertexFormat;
+import net.minecraft.client.render.VertexFormats;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.util.math.MathHelper;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Draws the billboarded quad of texture holograms. The vertex buffer and its staging memory are created once,
+ * every frame only rewrites the four vertices and draws them, without touching the heap
+ */
+public class TextureQuadRenderer {
+
+    private static final VertexFormat FORMAT = VertexFormats.POSITION_TEXTURE;
+    static final int VERTEX_COUNT = 4;
+
+    private static final float QUAD_SIZE = 16;
+    private static final float QUAD_OFFSET = 7.5f;
+
+    static final float[] QUAD_X = {0, 0, QUAD_SIZE, QUAD_SIZE};
+    static final float[] QUAD_Y = {0, QUAD_SIZE, QUAD_SIZE, 0};
+    static final float[] QUAD_U = {0, 0, 1, 1};
+    static final float[] QUAD_V = {0, 1, 1, 0};
+
+    private static ByteBuffer vertexData = null;
+    private static int vertexBuffer = 0;
+
+    /**
+     * Draws the given texture onto a quad above the projector that faces the given angle
+     *
+     * @param matrices The matrices of the projector, these are not modified
+     * @param texture  The OpenGL texture to draw
+     * @param rotation The angle towards the viewer around the y-axis, in radians
+     */
+    public static void draw(MatrixStack matrices, int texture, float rotation) {
+        if (vertexBuffer == 0) init();
+
+        writeVertices(vertexData, rotation);
+
+        RenderSystem.pushMatrix();
+        RenderSystem.multMatrix(matrices.peek().getModel());
+
+        RenderSystem.enableDepthTest();
+        RenderSystem.enableTexture();
+        RenderSystem.bindTexture(texture);
+
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vertexBuffer);
+        GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, 0, vertexData);
+        FORMAT.startDrawing(0L);
+        RenderSystem.drawArrays(GL11.GL_QUADS, 0, VERTEX_COUNT);
+        FORMAT.endDrawing();
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+
+        RenderSystem.popMatrix();
+    }
+
+    /**
+     * Writes the four vertices of the quad facing the given angle, in {@link VertexFormats#POSITION_TEXTURE}
+     *
+     * @param target   The buffer to write to, starting at index 0. Its position is not changed
+     * @param rotation The angle towards the viewer around the y-axis, in radians
+     */
+    static void writeVertices(ByteBuffer target, float rotation) {
+        final float sin = MathHelper.sin(rotation);
+        final float cos = MathHelper.cos(rotation);
+
+        // Equivalent to scale(0.1, -0.1, 0.1), translate(5, -20, 5), rotateY(90° - rotation), translate(-7.5, 0, 1)
+        int offset = 0;
+        for (int i = 0; i < VERTEX_COUNT; i++) {
+            final float x = QUAD_X[i] - QUAD_OFFSET;
+            target.putFloat(offset, 0.1f * (5 + x * sin + cos));
+            target.putFloat(offset + 4, -0.1f * (QUAD_Y[i] - 20));
+            target.putFloat(offset + 8, 0.1f * (5 - x * cos + sin));
+            target.putFloat(offset + 12, QUAD_U[i]);
+            target.putFloat(offset + 16, QUAD_V[i]);
+            offset += FORMAT.getVertexSize();
+        }
+    }
+
+    private static void init() {
+        vertexData = MemoryUtil.memAlloc(VERTEX_COUNT * FORMAT.getVertexSize());
+
+        vertexBuffer = GL15.glGenBuffers();
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vertexBuffer);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, vertexData.capacity(), GL15.GL_DYNAMIC_DRAW);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+    }
+}
@@ -17,6 +17,7 @@ public class ProjectorScreen extends HandledScreen<ScreenHandler> {
     private static final Identifier TEXTURE = new Identifier("holographic_renders", "textures/gui_hologram_projector.png");
 
     private boolean lightsEnabled = false;
+    private boolean liveArea = false;
 
     public ProjectorScreen(ScreenHandler handler, PlayerInventory inventory, Text title) {
         super(handler, inventory, title);
@@ -52,10 +53,16 @@ public class ProjectorScreen extends HandledScreen<ScreenHandler> {
         });
         addButton(lightCheckbox);
 
+        CheckboxWidget liveCheckbox = new CallbackCheckboxWidget(x + 110, y + 55, Text.of("Live"), liveArea, aBoolean -> {
+            client.getNetworkHandler().sendPacket(ProjectorScreenPacket.createLiveAreaAction(aBoolean));
+        });
+        addButton(liveCheckbox);
+
     }
 
-    public void setLights(boolean lightsEnabled) {
+    public void setState(boolean lightsEnabled, boolean liveArea) {
         this.lightsEnabled = lightsEnabled;
+        this.liveArea = liveArea;
         reload();
     }
 
@@ -65,6 +65,12 @@ public class ProjectorScreenHandler extends ScreenHandler {
         }
     }
 
+    public void setLiveArea(boolean liveArea) {
+        if (!blockEntity.getWorld().isClient) {
+            blockEntity.setLiveArea(liveArea);
+        }
+    }
+
     // Shift + Player Inv Slot
     @Override
     public ItemStack transferSlot(PlayerEntity player, int invSlot) {
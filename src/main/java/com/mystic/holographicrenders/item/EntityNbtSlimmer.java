@@ -0,0 +1,158 @@
+package com.mystic.holographicrenders.item;
+
+import com.mystic.holographicrenders.HolographicRendersConfig;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.util.NbtType;
+import net.minecraft.entity.EntityType;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.util.registry.Registry;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Reduces the NBT of captured entities to what changes how they render. Everything else, like inventories,
+ * brain memories, attributes and passengers, would only bloat the scanner, the projector and every sync
+ * <p>
+ * Keys kept for all entities are in {@link #COMMON_KEYS}, mods can allow additional keys for their
+ * entity types through {@link #registerKeys(EntityType, String...)}. Entity types of other mods that did not
+ * register any keys are only slimmed down to the common keys if {@link HolographicRendersConfig#slimModdedEntityNbt}
+ * is enabled, otherwise their NBT is kept as a whole
+ */
+public class EntityNbtSlimmer {
+
+    private static final Set<String> COMMON_KEYS = new HashSet<>(Arrays.asList(
+            "id", "CustomName", "CustomNameVisible", "Invisible", "Glowing",
+            "HandItems", "ArmorItems", "LeftHanded", "Age", "IsBaby", "Sitting", "Saddle"
+    ));
+
+    private static final Set<String> STACK_TAG_KEYS = new HashSet<>(Arrays.asList(
+            "Enchantments", "CustomModelData", "SkullOwner", "Damage"
+    ));
+
+    private static final Reference2ObjectOpenHashMap<EntityType<?>, Set<String>> TYPE_KEYS = new Reference2ObjectOpenHashMap<>();
+
+    static {
+        registerKeys(EntityType.ARMOR_STAND, "ShowArms", "Small", "NoBasePlate", "Marker", "Pose");
+        registerKeys(EntityType.BEE, "HasNectar", "AngerTime");
+        registerKeys(EntityType.CAT, "CatType", "CollarColor");
+        registerKeys(EntityType.CREEPER, "powered");
+        registerKeys(EntityType.DONKEY, "ChestedHorse");
+        registerKeys(EntityType.END_CRYSTAL, "ShowBottom", "BeamTarget");
+        registerKeys(EntityType.ENDERMAN, "carriedBlockState", "AngerTime");
+        registerKeys(EntityType.FOX, "Type", "Sleeping", "Crouching");
+        registerKeys(EntityType.HORSE, "Variant", "ArmorItem", "SaddleItem");
+        registerKeys(EntityType.IRON_GOLEM, "Health");
+        registerKeys(EntityType.LLAMA, "Variant", "DecorItem", "ChestedHorse");
+        registerKeys(EntityType.MAGMA_CUBE, "Size");
+        registerKeys(EntityType.MOOSHROOM, "Type");
+        registerKeys(EntityType.MULE, "ChestedHorse");
+        registerKeys(EntityType.PANDA, "MainGene", "HiddenGene");
+        registerKeys(EntityType.PARROT, "Variant");
+        registerKeys(EntityType.PHANTOM, "Size");
+        registerKeys(EntityType.PUFFERFISH, "PuffState");
+        registerKeys(EntityType.RABBIT, "RabbitType");
+        registerKeys(EntityType.SHEEP, "Color", "Sheared");
+        registerKeys(EntityType.SHULKER, "Color", "Peek");
+        registerKeys(EntityType.SLIME, "Size");
+        registerKeys(EntityType.SNOW_GOLEM, "Pumpkin");
+        registerKeys(EntityType.STRIDER, "Saddle");
+        registerKeys(EntityType.TRADER_LLAMA, "Variant", "DecorItem");
+        registerKeys(EntityType.TROPICAL_FISH, "Variant");
+        registerKeys(EntityType.TURTLE, "HasEgg");
+        registerKeys(EntityType.VILLAGER, "VillagerData");
+        registerKeys(EntityType.WOLF, "CollarColor", "AngerTime");
+        registerKeys(EntityType.ZOMBIE_VILLAGER, "VillagerData");
+    }
+
+    /**
+     * Allows additional top level keys to be kept for the given entity type
+     *
+     * @param type The {@link EntityType} the keys apply to
+     * @param keys The keys that affect how entities of this type render
+     */
+    public static void registerKeys(EntityType<?> type, String... keys) {
+        TYPE_KEYS.computeIfAbsent(type, t -> new HashSet<>()).addAll(Arrays.asList(keys));
+    }
+
+    /**
+     * Copies the render relevant parts of the given entity NBT, or the whole tag if {@link HolographicRendersConfig#slimEntityNbt}
+     * is disabled or the type belongs to another mod that did not register its keys and {@link HolographicRendersConfig#slimModdedEntityNbt} is disabled
+     *
+     * @param type      The type of the captured entity
+     * @param entityTag The full NBT of the entity
+     * @return The slimmed copy
+     */
+    public static NbtCompound slim(EntityType<?> type, NbtCompound entityTag) {
+        final Set<String> typeKeys = TYPE_KEYS.get(type);
+        if (!HolographicRendersConfig.slimEntityNbt) return entityTag.copy();
+        if (typeKeys == null && !HolographicRendersConfig.slimModdedEntityNbt && !isVanilla(type)) return entityTag.copy();
+        final NbtCompound slimmed = new NbtCompound();
+
+        for (String key : entityTag.getKeys()) {
+            if (!COMMON_KEYS.contains(key) && (typeKeys == null || !typeKeys.contains(key))) continue;
+
+            if (entityTag.contains(key, NbtType.LIST)) {
+                // Equipment lists, the stacks in them can carry whole inventories of their own
+                final NbtList list = entityTag.getList(key, NbtType.COMPOUND);
+                if (list.isEmpty()) {
+                    slimmed.put(key, entityTag.get(key).copy());
+                    continue;
+                }
+
+                final NbtList stacks = new NbtList();
+                for (int i = 0; i < list.size(); i++) {
+                    stacks.add(slimStack(list.getCompound(i)));
+                }
+                slimmed.put(key, stacks);
+            } else if (entityTag.contains(key, NbtType.COMPOUND) && entityTag.getCompound(key).contains("Count")) {
+                slimmed.put(key, slimStack(entityTag.getCompound(key)));
+            } else {
+                slimmed.put(key, entityTag.get(key).copy());
+            }
+        }
+
+        return slimmed;
+    }
+
+    private static boolean isVanilla(EntityType<?> type) {
+        return Registry.ENTITY_TYPE.getId(type).getNamespace().equals("minecraft");
+    }
+
+    /**
+     * Reduces a stack to its item, count and the parts of its tag that show on the item model
+     */
+    private static NbtCompound slimStack(NbtCompound stackTag) {
+        final NbtCompound slimmed = new NbtCompound();
+        if (stackTag.contains("id")) slimmed.put("id", stackTag.get("id").copy());
+        if (stackTag.contains("Count")) slimmed.put("Count", stackTag.get("Count").copy());
+        if (!stackTag.contains("tag", NbtType.COMPOUND)) return slimmed;
+
+        final NbtCompound tag = stackTag.getCompound("tag");
+        final NbtCompound slimmedTag = new NbtCompound();
+        for (String key : STACK_TAG_KEYS) {
+            if (tag.contains(key)) slimmedTag.put(key, tag.get(key).copy());
+        }
+
+        // Dyed leather armor and banner patterns on shields
+        final NbtCompound display = tag.getCompound("display");
+        if (display.contains("color")) {
+            final NbtCompound slimmedDisplay = new NbtCompound();
+            slimmedDisplay.put("color", display.get("color").copy());
+            slimmedTag.put("display", slimmedDisplay);
+        }
+
+        final NbtCompound blockEntityTag = tag.getCompound("BlockEntityTag");
+        if (blockEntityTag.contains("Patterns") || blockEntityTag.contains("Base")) {
+            final NbtCompound slimmedBlockEntityTag = new NbtCompound();
+            if (blockEntityTag.contains("Patterns")) slimmedBlockEntityTag.put("Patterns", blockEntityTag.get("Patterns").copy());
+            if (blockEntityTag.contains("Base")) slimmedBlockEntityTag.put("Base", blockEntityTag.get("Base").copy());
+            slimmedTag.put("BlockEntityTag", slimmedBlockEntityTag);
+        }
+
+        if (!slimmedTag.isEmpty()) slimmed.put("tag", slimmedTag);
+        return slimmed;
+    }
+}
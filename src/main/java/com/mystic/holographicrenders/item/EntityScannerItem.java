@@ -19,12 +19,16 @@ import net.minecraft.text.TranslatableText;
 import net.minecraft.util.*;
 import net.minecraft.util.registry.Registry;
 import net.minecraft.world.World;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 
 public class EntityScannerItem extends Item {
 
+    private static final Logger LOGGER = LogManager.getLogger();
+
     public EntityScannerItem() {
         super(new Settings().maxCount(1).group(HolographicRenders.HOLOGRAPHIC_RENDERS_CREATIVE_TAB));
     }
@@ -43,7 +47,13 @@ public class EntityScannerItem extends Item {
         NbtCompound entityTag = new NbtCompound();
         entity.saveSelfNbt(entityTag);
 
-        stackTag.put("Entity", entityTag);
+        NbtCompound slimmedTag = EntityNbtSlimmer.slim(entity.getType(), entityTag);
+        if (!user.world.isClient && LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Captured {}, entity NBT slimmed from {} to {} bytes", EntityType.getId(entity.getType()),
+                    PacketByteBufs.create().writeNbt(entityTag).readableBytes(), PacketByteBufs.create().writeNbt(slimmedTag).readableBytes());
+        }
+
+        stackTag.put("Entity", slimmedTag);
 
         return ActionResult.success(user.world.isClient);
     }
@@ -0,0 +1,20 @@
+package com.mystic.holographicrenders.mixin;
+
+import com.mystic.holographicrenders.client.ProjectorBlockEntityRenderer;
+import net.minecraft.client.gui.hud.DebugHud;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.List;
+
+@Mixin(DebugHud.class)
+public class DebugHudMixin {
+
+    @Inject(method = "getLeftText", at = @At("RETURN"))
+    public void addHologramStats(CallbackInfoReturnable<List<String>> cir) {
+        cir.getReturnValue().add(ProjectorBlockEntityRenderer.getDebugString());
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.mystic.holographicrenders.mixin;
+
+import com.mystic.holographicrenders.blocks.projector.PayloadStore;
+import com.mystic.holographicrenders.blocks.projector.ProjectorTracker;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.ProgressListener;
+import net.minecraft.util.math.BlockPos;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ServerWorld.class)
+public class ServerWorldMixin {
+
+    @Inject(method = "updateListeners", at = @At("HEAD"))
+    public void onBlockUpdate(BlockPos pos, BlockState oldState, BlockState newState, int flags, CallbackInfo ci) {
+        ProjectorTracker.onBlockChanged((ServerWorld) (Object) this, pos, newState);
+    }
+
+    @Inject(method = "save", at = @At("TAIL"))
+    public void onSave(ProgressListener progressListener, boolean flush, boolean savingDisabled, CallbackInfo ci) {
+        if (!savingDisabled) PayloadStore.onWorldSaved((ServerWorld) (Object) this);
+    }
+}
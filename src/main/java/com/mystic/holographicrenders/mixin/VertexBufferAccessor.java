@@ -0,0 +1,19 @@
+package com.mystic.holographicrenders.mixin;
+
+import net.minecraft.client.gl.VertexBuffer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(VertexBuffer.class)
+public interface VertexBufferAccessor {
+
+    @Accessor
+    int getVertexCount();
+
+    @Accessor
+    void setVertexCount(int vertexCount);
+
+    @Accessor
+    int getVertexBufferId();
+
+}
@@ -1,6 +1,10 @@
 package com.mystic.holographicrenders.mixin;
 
 import com.mystic.holographicrenders.HolographicRenders;
+import com.mystic.holographicrenders.client.AreaMeshRegistry;
+import com.mystic.holographicrenders.client.AreaMesher;
+import com.mystic.holographicrenders.client.ProjectorBlockEntityRenderer;
+import net.minecraft.block.BlockState;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.client.render.*;
@@ -11,6 +15,8 @@ import net.minecraft.util.hit.HitResult;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Matrix4f;
+import net.minecraft.world.BlockView;
+import net.minecraft.world.World;
 import org.objectweb.asm.Opcodes;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
@@ -48,4 +54,20 @@ public class WorldRendererMixin {
         matrices.pop();
     }
 
+    @Inject(method = "updateBlock", at = @At("HEAD"))
+    public void onBlockUpdate(BlockView world, BlockPos pos, BlockState oldState, BlockState newState, int flags, CallbackInfo ci) {
+        if (world instanceof World) AreaMeshRegistry.onBlockChanged((World) world, pos);
+    }
+
+    @Inject(method = "setupTerrain", at = @At("HEAD"))
+    public void captureFrustum(Camera camera, Frustum frustum, boolean hasForcedFrustum, int frame, boolean spectator, CallbackInfo ci) {
+        ProjectorBlockEntityRenderer.setFrustum(frustum);
+    }
+
+    @Inject(method = "render", at = @At(value = "FIELD", target = "Lnet/minecraft/client/MinecraftClient;crosshairTarget:Lnet/minecraft/util/hit/HitResult;", opcode = Opcodes.GETFIELD, ordinal = 1))
+    public void flushHolograms(MatrixStack matrices, float tickDelta, long limitTime, boolean renderBlockOutline, Camera camera, GameRenderer gameRenderer, LightmapTextureManager lightmapTextureManager, Matrix4f matrix4f, CallbackInfo ci) {
+        ProjectorBlockEntityRenderer.flushHolograms();
+        AreaMesher.update();
+    }
+
 }
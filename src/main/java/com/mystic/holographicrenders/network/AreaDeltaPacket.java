@@ -0,0 +1,121 @@
+package com.mystic.holographicrenders.network;
+
+import com.mystic.holographicrenders.HolographicRenders;
+import com.mystic.holographicrenders.HolographicRendersConfig;
+import com.mystic.holographicrenders.blocks.projector.AreaSnapshot;
+import com.mystic.holographicrenders.blocks.projector.ProjectorBlockEntity;
+import com.mystic.holographicrenders.client.AreaMeshRegistry;
+import com.mystic.holographicrenders.client.PayloadLoader;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.fabricmc.fabric.api.networking.v1.PacketSender;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayNetworkHandler;
+import net.minecraft.network.Packet;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayNetworkHandler;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+public class AreaDeltaPacket {
+
+    public static final Identifier DELTA_ID = new Identifier(HolographicRenders.MOD_ID, "area_delta");
+    public static final Identifier RESYNC_ID = new Identifier(HolographicRenders.MOD_ID, "area_resync");
+
+    /**
+     * Minimum number of ticks between two resyncs of the same projector for one player
+     */
+    private static final long RESYNC_INTERVAL = 20;
+    private static final double RESYNC_SLACK = 8;
+
+    private static final Map<ServerPlayerEntity, Long2LongMap> LAST_RESYNCS = new WeakHashMap<>();
+
+    public static Packet<?> create(BlockPos pos, AreaSnapshot.Delta delta) {
+        PacketByteBuf buffer = PacketByteBufs.create();
+
+        buffer.writeBlockPos(pos);
+        delta.write(buffer);
+
+        return ServerPlayNetworking.createS2CPacket(DELTA_ID, buffer);
+    }
+
+    public static Packet<?> createResyncRequest(BlockPos pos) {
+        PacketByteBuf buffer = PacketByteBufs.create();
+
+        buffer.writeBlockPos(pos);
+
+        return ClientPlayNetworking.createC2SPacket(RESYNC_ID, buffer);
+    }
+
+    /**
+     * Asks the server to send the full state of the projector at the given position again
+     */
+    public static void requestResync(BlockPos pos) {
+        ClientPlayNetworking.getSender().sendPacket(createResyncRequest(pos));
+    }
+
+    public static void onClientDelta(MinecraftClient minecraftClient, ClientPlayNetworkHandler clientPlayNetworkHandler, PacketByteBuf packetByteBuf, PacketSender packetSender) {
+
+        BlockPos pos = packetByteBuf.readBlockPos();
+        AreaSnapshot.Delta delta = AreaSnapshot.Delta.read(packetByteBuf);
+
+        minecraftClient.execute(() -> {
+            BlockEntity blockEntity = minecraftClient.world.getBlockEntity(pos);
+            if (!(blockEntity instanceof ProjectorBlockEntity)) return;
+            ProjectorBlockEntity projector = (ProjectorBlockEntity) blockEntity;
+
+            // The stored snapshot is fetched once the projector is close enough, the delta is applied on top of it
+            if (projector.isAwaitingAreaSnapshot()) {
+                if (!projector.queueAreaDelta(delta)) packetSender.sendPacket(createResyncRequest(pos));
+                return;
+            }
+
+            // A missed update leaves the snapshot at an older version, only a full resync can fix that
+            if (!projector.applyAreaDelta(delta)) {
+                packetSender.sendPacket(createResyncRequest(pos));
+                return;
+            }
+
+            AreaMeshRegistry.onSnapshotDelta(minecraftClient.world, projector.getAreaSnapshot(), delta);
+        });
+    }
+
+    public static void onResyncRequest(MinecraftServer minecraftServer, ServerPlayerEntity serverPlayerEntity, ServerPlayNetworkHandler serverPlayNetworkHandler, PacketByteBuf packetByteBuf, PacketSender packetSender) {
+
+        BlockPos pos = packetByteBuf.readBlockPos();
+
+        minecraftServer.execute(() -> {
+            if (!serverPlayerEntity.world.isChunkLoaded(pos)) return;
+
+            // Only projectors the client could be rendering, a resync is the full state and not cheap
+            final double distance = HolographicRendersConfig.hologramViewDistance * PayloadLoader.DISCARD_FACTOR + RESYNC_SLACK;
+            if (serverPlayerEntity.squaredDistanceTo(Vec3d.ofCenter(pos)) > distance * distance) return;
+
+            BlockEntity blockEntity = serverPlayerEntity.world.getBlockEntity(pos);
+            if (!(blockEntity instanceof ProjectorBlockEntity)) return;
+
+            final long time = serverPlayerEntity.world.getTime();
+            final Long2LongMap lastResyncs = LAST_RESYNCS.computeIfAbsent(serverPlayerEntity, player -> new Long2LongOpenHashMap());
+            final LongIterator iterator = lastResyncs.values().iterator();
+            while (iterator.hasNext()) {
+                final long last = iterator.nextLong();
+                if (time - last >= RESYNC_INTERVAL || time < last) iterator.remove();
+            }
+            if (lastResyncs.containsKey(pos.asLong())) return;
+            lastResyncs.put(pos.asLong(), time);
+
+            ((ProjectorBlockEntity) blockEntity).sendState(serverPlayerEntity);
+        });
+    }
+}
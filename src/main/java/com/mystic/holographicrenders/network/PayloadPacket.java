@@ -0,0 +1,78 @@
+package com.mystic.holographicrenders.network;
+
+import com.mystic.holographicrenders.HolographicRenders;
+import com.mystic.holographicrenders.HolographicRendersConfig;
+import com.mystic.holographicrenders.blocks.projector.PayloadStore;
+import com.mystic.holographicrenders.client.PayloadCache;
+import com.mystic.holographicrenders.client.PayloadLoader;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.fabricmc.fabric.api.networking.v1.PacketSender;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayNetworkHandler;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.Packet;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayNetworkHandler;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Requests and responses for the payloads in the {@link PayloadStore}, which projectors only reference by hash
+ */
+public class PayloadPacket {
+
+    public static final Identifier REQUEST_ID = new Identifier(HolographicRenders.MOD_ID, "payload_request");
+    public static final Identifier DATA_ID = new Identifier(HolographicRenders.MOD_ID, "payload_data");
+
+    private static final int MAX_HASH_LENGTH = 64;
+
+    /**
+     * Extra distance allowed for requests, the client measures from the camera instead of the player
+     */
+    private static final double REQUEST_SLACK = 8;
+
+    public static Packet<?> createRequest(String hash) {
+        PacketByteBuf buffer = PacketByteBufs.create();
+
+        buffer.writeString(hash, MAX_HASH_LENGTH);
+
+        return ClientPlayNetworking.createC2SPacket(REQUEST_ID, buffer);
+    }
+
+    public static Packet<?> createData(String hash, @Nullable NbtCompound payload) {
+        PacketByteBuf buffer = PacketByteBufs.create();
+
+        buffer.writeString(hash, MAX_HASH_LENGTH);
+        buffer.writeBoolean(payload != null);
+        if (payload != null) ProjectorStatePacket.writePayload(buffer, payload);
+
+        return ServerPlayNetworking.createS2CPacket(DATA_ID, buffer);
+    }
+
+    public static void onRequest(MinecraftServer minecraftServer, ServerPlayerEntity serverPlayerEntity, ServerPlayNetworkHandler serverPlayNetworkHandler, PacketByteBuf packetByteBuf, PacketSender packetSender) {
+
+        String hash = packetByteBuf.readString(MAX_HASH_LENGTH);
+
+        minecraftServer.execute(() -> {
+            final PayloadStore store = PayloadStore.getInstance();
+
+            // Only hand out payloads of projectors near the player, the store is not a general purpose file server
+            final double distance = HolographicRendersConfig.hologramViewDistance * PayloadLoader.DISCARD_FACTOR + REQUEST_SLACK;
+            final boolean allowed = store != null && store.isReferencedNear(hash, serverPlayerEntity.world, serverPlayerEntity.getPos(), distance);
+            final NbtCompound payload = allowed ? store.get(hash) : null;
+            packetSender.sendPacket(createData(hash, payload));
+        });
+    }
+
+    public static void onData(MinecraftClient minecraftClient, ClientPlayNetworkHandler clientPlayNetworkHandler, PacketByteBuf packetByteBuf, PacketSender packetSender) {
+
+        String hash = packetByteBuf.readString(MAX_HASH_LENGTH);
+        NbtCompound payload = packetByteBuf.readBoolean() ? ProjectorStatePacket.readPayload(packetByteBuf) : null;
+
+        minecraftClient.execute(() -> PayloadCache.complete(hash, payload));
+    }
+}
@@ -21,10 +21,11 @@ public class ProjectorScreenPacket {
     public static final Identifier UPDATE_ID = new Identifier(HolographicRenders.MOD_ID, "update_projector_screen");
     public static final Identifier ACTION_REQUEST_ID = new Identifier(HolographicRenders.MOD_ID, "projector_screen_action_request");
 
-    public static Packet<?> createUpdate(boolean lights) {
+    public static Packet<?> createUpdate(boolean lights, boolean liveArea) {
         PacketByteBuf buffer = PacketByteBufs.create();
 
         buffer.writeBoolean(lights);
+        buffer.writeBoolean(liveArea);
 
         return ServerPlayNetworking.createS2CPacket(UPDATE_ID, buffer);
     }
@@ -38,13 +39,23 @@ public class ProjectorScreenPacket {
         return ClientPlayNetworking.createC2SPacket(ACTION_REQUEST_ID, buffer);
     }
 
+    public static Packet<?> createLiveAreaAction(boolean liveArea) {
+        PacketByteBuf buffer = PacketByteBufs.create();
+
+        buffer.writeVarInt(ActionRequestType.SET_LIVE_AREA.ordinal());
+        buffer.writeBoolean(liveArea);
+
+        return ClientPlayNetworking.createC2SPacket(ACTION_REQUEST_ID, buffer);
+    }
+
     public static void onClientUpdate(MinecraftClient minecraftClient, ClientPlayNetworkHandler clientPlayNetworkHandler, PacketByteBuf packetByteBuf, PacketSender packetSender) {
 
         boolean lights = packetByteBuf.readBoolean();
+        boolean liveArea = packetByteBuf.readBoolean();
 
         minecraftClient.execute(() -> {
             if (minecraftClient.currentScreen instanceof ProjectorScreen) {
-                ((ProjectorScreen) minecraftClient.currentScreen).setLights(lights);
+                ((ProjectorScreen) minecraftClient.currentScreen).setState(lights, liveArea);
             }
         });
     }
@@ -63,11 +74,18 @@ public class ProjectorScreenPacket {
                     handler.setLight(lights);
                 });
                 break;
+            case SET_LIVE_AREA:
+                boolean liveArea = packetByteBuf.readBoolean();
+                minecraftServer.execute(() -> {
+                    handler.setLiveArea(liveArea);
+                });
+                break;
         }
 
     }
 
     private enum ActionRequestType {
-        SET_LIGHT
+        SET_LIGHT,
+        SET_LIVE_AREA
     }
 }
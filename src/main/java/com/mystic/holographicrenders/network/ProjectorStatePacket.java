@@ -0,0 +1,157 @@
+package com.mystic.holographicrenders.network;
+
+import com.mystic.holographicrenders.HolographicRenders;
+import com.mystic.holographicrenders.blocks.projector.ProjectorBlockEntity;
+import com.mystic.holographicrenders.client.RenderDataProviderRegistry;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.fabricmc.fabric.api.networking.v1.PacketSender;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayNetworkHandler;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.network.Packet;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Full state of a projector in a compact binary form, sent instead of the block entity NBT whenever the
+ * content of a projector changes. Provider types are sent as numeric ids, which are mapped to the server's
+ * type ids sent at login, and NBT payloads larger than {@link #COMPRESSION_THRESHOLD} bytes are deflated
+ */
+public class ProjectorStatePacket {
+
+    public static final Identifier PROVIDER_IDS_ID = new Identifier(HolographicRenders.MOD_ID, "provider_ids");
+    public static final Identifier STATE_ID = new Identifier(HolographicRenders.MOD_ID, "projector_state");
+
+    private static final int COMPRESSION_THRESHOLD = 256;
+    private static final int MAX_PAYLOAD_SIZE = 8 * 1024 * 1024;
+
+    public static Packet<?> createProviderIds() {
+        PacketByteBuf buffer = PacketByteBufs.create();
+
+        final List<Identifier> ids = RenderDataProviderRegistry.getIds();
+        buffer.writeVarInt(ids.size());
+        for (Identifier id : ids) {
+            buffer.writeIdentifier(id);
+        }
+
+        return ServerPlayNetworking.createS2CPacket(PROVIDER_IDS_ID, buffer);
+    }
+
+    public static PacketByteBuf write(ProjectorBlockEntity projector) {
+        PacketByteBuf buffer = PacketByteBufs.create();
+
+        buffer.writeBlockPos(projector.getPos());
+        projector.writeState(buffer);
+
+        return buffer;
+    }
+
+    /**
+     * Writes the given tag, deflated if it is larger than {@link #COMPRESSION_THRESHOLD} bytes
+     */
+    public static void writePayload(PacketByteBuf buf, NbtCompound tag) {
+        final PacketByteBuf raw = new PacketByteBuf(Unpooled.buffer());
+        try (DataOutputStream stream = new DataOutputStream(new ByteBufOutputStream(raw))) {
+            NbtIo.write(tag, stream);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write projector payload", e);
+        }
+
+        final int size = raw.readableBytes();
+        final byte[] data = new byte[size];
+        raw.readBytes(data);
+
+        if (size < COMPRESSION_THRESHOLD) {
+            buf.writeVarInt(0);
+            buf.writeByteArray(data);
+            return;
+        }
+
+        final Deflater deflater = new Deflater();
+        deflater.setInput(data);
+        deflater.finish();
+
+        final byte[] buffer = new byte[8192];
+        final PacketByteBuf compressed = new PacketByteBuf(Unpooled.buffer());
+        while (!deflater.finished()) {
+            compressed.writeBytes(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+
+        buf.writeVarInt(size);
+        buf.writeVarInt(compressed.readableBytes());
+        buf.writeBytes(compressed);
+    }
+
+    /**
+     * Reads a tag written by {@link #writePayload(PacketByteBuf, NbtCompound)}
+     */
+    public static NbtCompound readPayload(PacketByteBuf buf) {
+        final int size = buf.readVarInt();
+        final byte[] data;
+
+        if (size == 0) {
+            data = buf.readByteArray(MAX_PAYLOAD_SIZE);
+        } else {
+            if (size > MAX_PAYLOAD_SIZE) throw new IllegalStateException("Projector payload of " + size + " bytes is too large");
+
+            final Inflater inflater = new Inflater();
+            inflater.setInput(buf.readByteArray(MAX_PAYLOAD_SIZE));
+            data = new byte[size];
+            try {
+                inflater.inflate(data);
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Corrupt projector payload", e);
+            } finally {
+                inflater.end();
+            }
+        }
+
+        try (DataInputStream stream = new DataInputStream(new ByteBufInputStream(Unpooled.wrappedBuffer(data)))) {
+            return NbtIo.read(stream);
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt projector payload", e);
+        }
+    }
+
+    public static void onProviderIds(MinecraftClient minecraftClient, ClientPlayNetworkHandler clientPlayNetworkHandler, PacketByteBuf packetByteBuf, PacketSender packetSender) {
+
+        final int count = packetByteBuf.readVarInt();
+        final List<Identifier> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(packetByteBuf.readIdentifier());
+        }
+
+        minecraftClient.execute(() -> RenderDataProviderRegistry.setRemoteIds(ids));
+    }
+
+    public static void onClientState(MinecraftClient minecraftClient, ClientPlayNetworkHandler clientPlayNetworkHandler, PacketByteBuf packetByteBuf, PacketSender packetSender) {
+
+        BlockPos pos = packetByteBuf.readBlockPos();
+        PacketByteBuf data = PacketByteBufs.copy(packetByteBuf);
+
+        minecraftClient.execute(() -> {
+            BlockEntity blockEntity = minecraftClient.world.getBlockEntity(pos);
+            if (blockEntity instanceof ProjectorBlockEntity) {
+                ((ProjectorBlockEntity) blockEntity).readState(data);
+            }
+            data.release();
+        });
+    }
+}
@@ -0,0 +1,46 @@
+package com.mystic.holographicrenders.network;
+
+import com.mystic.holographicrenders.HolographicRenders;
+import com.mystic.holographicrenders.blocks.projector.ProjectorBlockEntity;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.fabricmc.fabric.api.networking.v1.PacketSender;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayNetworkHandler;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Partial sync of a projector, containing only the fields that changed. Changes to the content
+ * of a projector are sent as the full state through {@link ProjectorStatePacket} instead
+ */
+public class ProjectorSyncPacket {
+
+    public static final Identifier ID = new Identifier(HolographicRenders.MOD_ID, "projector_sync");
+
+    public static PacketByteBuf write(BlockPos pos, int fields, ProjectorBlockEntity projector) {
+        PacketByteBuf buffer = PacketByteBufs.create();
+
+        buffer.writeBlockPos(pos);
+        buffer.writeVarInt(fields);
+        projector.writeSyncFields(fields, buffer);
+
+        return buffer;
+    }
+
+    public static void onClientUpdate(MinecraftClient minecraftClient, ClientPlayNetworkHandler clientPlayNetworkHandler, PacketByteBuf packetByteBuf, PacketSender packetSender) {
+
+        BlockPos pos = packetByteBuf.readBlockPos();
+        int fields = packetByteBuf.readVarInt();
+        PacketByteBuf data = PacketByteBufs.copy(packetByteBuf);
+
+        minecraftClient.execute(() -> {
+            BlockEntity blockEntity = minecraftClient.world.getBlockEntity(pos);
+            if (blockEntity instanceof ProjectorBlockEntity) {
+                ((ProjectorBlockEntity) blockEntity).readSyncFields(fields, data);
+            }
+            data.release();
+        });
+    }
+}
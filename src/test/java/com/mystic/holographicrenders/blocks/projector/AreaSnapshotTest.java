@@ -0,0 +1,144 @@
+package com.mystic.holographicrenders.blocks.projector;
+
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.Bootstrap;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtHelper;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.math.BlockPos;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AreaSnapshotTest {
+
+    private static final BlockPos MIN = new BlockPos(10, 64, -5);
+    private static final BlockPos MAX = new BlockPos(13, 67, -2);
+
+    @BeforeAll
+    static void bootstrap() {
+        Bootstrap.initialize();
+    }
+
+    /**
+     * An empty 4x4x4 area, its palette only holds air
+     */
+    private static AreaSnapshot createEmpty() {
+        final NbtCompound tag = new NbtCompound();
+        tag.putLong("Id", 42);
+        tag.putLong("Min", MIN.asLong());
+        tag.putLong("Max", MAX.asLong());
+
+        final NbtList palette = new NbtList();
+        palette.add(NbtHelper.fromBlockState(Blocks.AIR.getDefaultState()));
+        tag.put("Palette", palette);
+        tag.putLongArray("Data", new long[1]);
+
+        return AreaSnapshot.fromNbt(tag);
+    }
+
+    private static Int2ObjectMap<BlockState> changes(AreaSnapshot snapshot, Object... posAndState) {
+        final Int2ObjectMap<BlockState> changes = new Int2ObjectOpenHashMap<>();
+        for (int i = 0; i < posAndState.length; i += 2) {
+            changes.put(snapshot.getIndex((BlockPos) posAndState[i]), (BlockState) posAndState[i + 1]);
+        }
+        return changes;
+    }
+
+    @Test
+    void indexesBlocksInsideTheArea() {
+        final AreaSnapshot snapshot = createEmpty();
+
+        assertEquals(-1, snapshot.getIndex(MIN.down()));
+        assertEquals(-1, snapshot.getIndex(MAX.east()));
+        for (BlockPos pos : BlockPos.iterate(MIN, MAX)) {
+            assertEquals(pos, snapshot.getPos(snapshot.getIndex(pos)));
+        }
+    }
+
+    @Test
+    void appliesDeltasToTheVersionTheyWereMadeFor() {
+        final AreaSnapshot snapshot = createEmpty();
+        final BlockPos pos = MIN.add(1, 2, 3);
+
+        final AreaSnapshot.Delta delta = snapshot.createDelta(changes(snapshot, pos, Blocks.STONE.getDefaultState()));
+        final AreaSnapshot next = snapshot.apply(delta);
+
+        assertNotNull(next);
+        assertEquals(snapshot.getId(), next.getId());
+        assertEquals(1, next.getVersion());
+        assertEquals(Blocks.STONE.getDefaultState(), next.getBlockState(pos));
+        assertEquals(Blocks.AIR.getDefaultState(), snapshot.getBlockState(pos));
+
+        assertNull(next.apply(delta));
+    }
+
+    @Test
+    void growsThePaletteBeyondOneBit() {
+        AreaSnapshot snapshot = createEmpty();
+        final BlockState[] states = {Blocks.STONE.getDefaultState(), Blocks.DIRT.getDefaultState(), Blocks.OAK_PLANKS.getDefaultState(), Blocks.GLASS.getDefaultState()};
+
+        for (int i = 0; i < states.length; i++) {
+            snapshot = snapshot.apply(snapshot.createDelta(changes(snapshot, MIN.east(i), states[i])));
+            assertNotNull(snapshot);
+        }
+
+        for (int i = 0; i < states.length; i++) {
+            assertEquals(states[i], snapshot.getBlockState(MIN.east(i)));
+        }
+        assertEquals(Blocks.AIR.getDefaultState(), snapshot.getBlockState(MAX));
+
+        final AreaSnapshot copy = AreaSnapshot.fromNbt(snapshot.toNbt());
+        assertNotNull(copy);
+        assertEquals(snapshot, copy);
+        for (BlockPos pos : BlockPos.iterate(MIN, MAX)) {
+            assertEquals(snapshot.getBlockState(pos), copy.getBlockState(pos));
+        }
+    }
+
+    @Test
+    void rejectsMalformedNbt() {
+        final NbtCompound tag = createEmpty().toNbt();
+        tag.putLongArray("Data", new long[3]);
+        assertNull(AreaSnapshot.fromNbt(tag));
+    }
+
+    @Test
+    void roundTripsDeltasOnTheWire() {
+        final AreaSnapshot snapshot = createEmpty();
+        final AreaSnapshot.Delta delta = snapshot.createDelta(changes(snapshot, MIN, Blocks.STONE.getDefaultState(), MAX, Blocks.DIRT.getDefaultState()));
+
+        final PacketByteBuf buf = new PacketByteBuf(Unpooled.buffer());
+        delta.write(buf);
+        final AreaSnapshot.Delta read = AreaSnapshot.Delta.read(buf);
+
+        assertEquals(0, buf.readableBytes());
+        assertEquals(delta.size(), read.size());
+        assertEquals(snapshot.apply(delta).getBlockState(MAX), snapshot.apply(read).getBlockState(MAX));
+    }
+
+    @Test
+    void restoresSavedChangesAtTheirVersion() {
+        final AreaSnapshot stored = createEmpty();
+        final Int2ObjectMap<BlockState> changes = changes(stored, MIN, Blocks.STONE.getDefaultState(), MAX, Blocks.GLASS.getDefaultState());
+
+        final AreaSnapshot.Delta saved = AreaSnapshot.Delta.fromNbt(stored.createDelta(changes).toNbt());
+        assertEquals(changes, stored.getChanges(saved));
+
+        final AreaSnapshot restored = stored.apply(saved, 7);
+        assertNotNull(restored);
+        assertEquals(7, restored.getVersion());
+        assertEquals(Blocks.GLASS.getDefaultState(), restored.getBlockState(MAX));
+
+        // Live deltas continue from the restored version
+        final AreaSnapshot.Delta next = restored.createDelta(changes(restored, MAX, Blocks.AIR.getDefaultState()));
+        assertEquals(7, next.getBaseVersion());
+        assertEquals(Blocks.AIR.getDefaultState(), restored.apply(next).getBlockState(MAX));
+    }
+}
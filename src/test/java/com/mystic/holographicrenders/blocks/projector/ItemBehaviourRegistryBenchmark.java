@@ -0,0 +1,114 @@
+package com.mystic.holographicrenders.blocks.projector;
+
+import com.google.common.collect.ImmutableSet;
+import net.minecraft.Bootstrap;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.tag.Tag;
+import net.minecraft.util.registry.Registry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Compares behaviour lookups through {@link ItemBehaviourRegistry} with the linear predicate scan it replaced,
+ * at 60 registered behaviours. Run through {@code gradlew benchmark}, results are printed
+ */
+@org.junit.jupiter.api.Tag("benchmark")
+class ItemBehaviourRegistryBenchmark {
+
+    private static final int ITEM_BEHAVIOURS = 50;
+    private static final int TAG_BEHAVIOURS = 5;
+    private static final int PREDICATE_BEHAVIOURS = 5;
+
+    private static final int WARMUP_LOOKUPS = 2000000;
+    private static final int LOOKUPS = 10000000;
+
+    /**
+     * Keeps the JIT from dropping the measured lookups
+     */
+    private static volatile long sink;
+
+    @BeforeAll
+    static void bootstrap() {
+        Bootstrap.initialize();
+    }
+
+    @Test
+    void lookup() {
+        final List<Item> items = new ArrayList<>();
+        for (Item item : Registry.ITEM) {
+            if (item != Items.AIR) items.add(item);
+            if (items.size() == ITEM_BEHAVIOURS + TAG_BEHAVIOURS * 2 + PREDICATE_BEHAVIOURS) break;
+        }
+
+        final ItemBehaviourRegistry<Integer> registry = new ItemBehaviourRegistry<>();
+        final List<Predicate<ItemStack>> linear = new ArrayList<>();
+
+        int index = 0;
+        for (int i = 0; i < ITEM_BEHAVIOURS; i++, index++) {
+            final Item item = items.get(index);
+            registry.register(item, i);
+            linear.add(stack -> stack.getItem() == item);
+        }
+        for (int i = 0; i < TAG_BEHAVIOURS; i++, index += 2) {
+            final Tag<Item> tag = Tag.of(ImmutableSet.of(items.get(index), items.get(index + 1)));
+            registry.register(tag, ITEM_BEHAVIOURS + i);
+            linear.add(stack -> tag.contains(stack.getItem()));
+        }
+        for (int i = 0; i < PREDICATE_BEHAVIOURS; i++, index++) {
+            final Item item = items.get(index);
+            final Predicate<ItemStack> condition = stack -> stack.getItem() == item;
+            registry.register(condition, 0, ITEM_BEHAVIOURS + TAG_BEHAVIOURS + i);
+            linear.add(condition);
+        }
+
+        final ItemStack[] stacks = new ItemStack[items.size()];
+        for (int i = 0; i < stacks.length; i++) stacks[i] = new ItemStack(items.get(i));
+
+        report("Exact item", registry, linear, stacks, 0, ITEM_BEHAVIOURS);
+        report("Item tag", registry, linear, stacks, ITEM_BEHAVIOURS, ITEM_BEHAVIOURS + TAG_BEHAVIOURS * 2);
+        report("Predicate", registry, linear, stacks, ITEM_BEHAVIOURS + TAG_BEHAVIOURS * 2, stacks.length);
+    }
+
+    private static void report(String name, ItemBehaviourRegistry<Integer> registry, List<Predicate<ItemStack>> linear, ItemStack[] stacks, int from, int to) {
+        measureRegistry(registry, stacks, from, to, WARMUP_LOOKUPS);
+        measureLinear(linear, stacks, from, to, WARMUP_LOOKUPS);
+
+        final double registryNanos = measureRegistry(registry, stacks, from, to, LOOKUPS);
+        final double linearNanos = measureLinear(linear, stacks, from, to, LOOKUPS);
+        System.out.printf("%s lookups: %.1f ns indexed, %.1f ns linear scan%n", name, registryNanos, linearNanos);
+    }
+
+    private static double measureRegistry(ItemBehaviourRegistry<Integer> registry, ItemStack[] stacks, int from, int to, int lookups) {
+        long sum = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            sum += registry.get(stacks[from + i % (to - from)]);
+        }
+        final long nanos = System.nanoTime() - start;
+        sink = sum;
+        return nanos / (double) lookups;
+    }
+
+    private static double measureLinear(List<Predicate<ItemStack>> linear, ItemStack[] stacks, int from, int to, int lookups) {
+        long sum = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            final ItemStack stack = stacks[from + i % (to - from)];
+            for (int j = 0; j < linear.size(); j++) {
+                if (linear.get(j).test(stack)) {
+                    sum += j;
+                    break;
+                }
+            }
+        }
+        final long nanos = System.nanoTime() - start;
+        sink = sum;
+        return nanos / (double) lookups;
+    }
+}
@@ -0,0 +1,72 @@
+package com.mystic.holographicrenders.blocks.projector;
+
+import com.google.common.collect.ImmutableSet;
+import net.minecraft.Bootstrap;
+import net.minecraft.item.BlockItem;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.tag.Tag;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemBehaviourRegistryTest {
+
+    @BeforeAll
+    static void bootstrap() {
+        Bootstrap.initialize();
+    }
+
+    @Test
+    void findsNothingForUnregisteredItems() {
+        final ItemBehaviourRegistry<String> registry = new ItemBehaviourRegistry<>();
+        registry.register(Items.NAME_TAG, "name tag");
+
+        assertNull(registry.get(new ItemStack(Items.DIAMOND)));
+        assertNull(registry.get(ItemStack.EMPTY));
+    }
+
+    @Test
+    void exactItemsWinOverTagsAndPredicates() {
+        final ItemBehaviourRegistry<String> registry = new ItemBehaviourRegistry<>();
+        registry.register(stack -> stack.getItem() instanceof BlockItem, 100, "block");
+        registry.register(Tag.of(ImmutableSet.of(Items.STONE, Items.DIRT)), "tag");
+        registry.register(Items.STONE, "stone");
+
+        assertEquals("stone", registry.get(new ItemStack(Items.STONE)));
+        assertEquals("tag", registry.get(new ItemStack(Items.DIRT)));
+        assertEquals("block", registry.get(new ItemStack(Items.GLASS)));
+    }
+
+    @Test
+    void testsTagsInRegistrationOrder() {
+        final ItemBehaviourRegistry<String> registry = new ItemBehaviourRegistry<>();
+        registry.register(Tag.of(ImmutableSet.of(Items.APPLE)), "first");
+        registry.register(Tag.of(ImmutableSet.of(Items.APPLE, Items.BREAD)), "second");
+
+        assertEquals("first", registry.get(new ItemStack(Items.APPLE)));
+        assertEquals("second", registry.get(new ItemStack(Items.BREAD)));
+    }
+
+    @Test
+    void testsPredicatesByPriorityThenRegistrationOrder() {
+        final ItemBehaviourRegistry<String> registry = new ItemBehaviourRegistry<>();
+        registry.register(stack -> true, 0, "low");
+        registry.register(stack -> stack.getItem() instanceof BlockItem, 10, "high");
+        registry.register(stack -> stack.getItem() instanceof BlockItem, 10, "high, later");
+        registry.register(stack -> true, 0, "low, later");
+
+        assertEquals("high", registry.get(new ItemStack(Items.GLASS)));
+        assertEquals("low", registry.get(new ItemStack(Items.APPLE)));
+    }
+
+    @Test
+    void rejectsDoubleRegisteredItems() {
+        final ItemBehaviourRegistry<String> registry = new ItemBehaviourRegistry<>();
+        registry.register(Items.FILLED_MAP, "map");
+
+        assertThrows(IllegalStateException.class, () -> registry.register(Items.FILLED_MAP, "other map"));
+        assertEquals("map", registry.get(new ItemStack(Items.FILLED_MAP)));
+    }
+}
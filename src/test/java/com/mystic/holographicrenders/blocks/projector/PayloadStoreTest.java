@@ -0,0 +1,139 @@
+package com.mystic.holographicrenders.blocks.projector;
+
+import net.minecraft.nbt.NbtCompound;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadStoreTest {
+
+    private static final String OVERWORLD = "minecraft:overworld";
+    private static final String NETHER = "minecraft:the_nether";
+    private static final String PROJECTOR = OVERWORLD + "@" + 1234L;
+    private static final String OTHER_PROJECTOR = OVERWORLD + "@" + 5678L;
+    private static final String NETHER_PROJECTOR = NETHER + "@" + 1234L;
+
+    @TempDir
+    Path dir;
+
+    private static NbtCompound payload(long seed) {
+        final byte[] data = new byte[4096];
+        new Random(seed).nextBytes(data);
+
+        final NbtCompound payload = new NbtCompound();
+        payload.putByteArray("Data", data);
+        return payload;
+    }
+
+    private boolean isStored(String hash) {
+        return new PayloadStore(dir).get(hash) != null;
+    }
+
+    @Test
+    void storesLargePayloadsOnce() {
+        final PayloadStore store = new PayloadStore(dir);
+
+        final String hash = store.put(payload(1));
+        assertNotNull(hash);
+        assertEquals(hash, store.put(payload(1)));
+        assertNotEquals(hash, store.put(payload(2)));
+        assertEquals(payload(1), store.get(hash));
+
+        final NbtCompound small = new NbtCompound();
+        small.putString("Name", "small");
+        assertNull(store.put(small));
+    }
+
+    @Test
+    void deletesPayloadsReleasedBeforeASave() {
+        final PayloadStore store = new PayloadStore(dir);
+        final String hash = store.put(payload(1));
+        store.acquire(hash, PROJECTOR);
+        store.release(hash, PROJECTOR);
+
+        store.onSaved(OVERWORLD);
+        store.deleteCollectable();
+
+        assertFalse(isStored(hash));
+    }
+
+    @Test
+    void keepsPayloadsReleasedAfterTheLastSave() {
+        final PayloadStore store = new PayloadStore(dir);
+        final String hash = store.put(payload(1));
+        store.acquire(hash, PROJECTOR);
+        store.onSaved(OVERWORLD);
+
+        // Without a save the chunk on disk still references the payload
+        store.release(hash, PROJECTOR);
+        store.deleteCollectable();
+
+        assertTrue(isStored(hash));
+    }
+
+    @Test
+    void waitsForTheDimensionOfTheReleasingProjector() {
+        final PayloadStore store = new PayloadStore(dir);
+        final String hash = store.put(payload(1));
+        store.acquire(hash, NETHER_PROJECTOR);
+        store.release(hash, NETHER_PROJECTOR);
+
+        store.onSaved(OVERWORLD);
+        store.deleteCollectable();
+        assertTrue(isStored(hash));
+
+        store.onSaved(NETHER);
+        store.deleteCollectable();
+        assertFalse(isStored(hash));
+    }
+
+    @Test
+    void keepsPayloadsWithRemainingHolders() {
+        final PayloadStore store = new PayloadStore(dir);
+        final String hash = store.put(payload(1));
+        store.acquire(hash, PROJECTOR);
+        store.acquire(hash, OTHER_PROJECTOR);
+        store.release(hash, PROJECTOR);
+
+        store.onSaved(OVERWORLD);
+        store.deleteCollectable();
+        assertTrue(isStored(hash));
+    }
+
+    @Test
+    void keepsPayloadsAcquiredAgain() {
+        final PayloadStore store = new PayloadStore(dir);
+        final String hash = store.put(payload(1));
+        store.acquire(hash, PROJECTOR);
+        store.release(hash, PROJECTOR);
+        store.onSaved(OVERWORLD);
+
+        store.acquire(hash, OTHER_PROJECTOR);
+        store.deleteCollectable();
+        assertTrue(isStored(hash));
+    }
+
+    @Test
+    void keepsReferencesAcrossRestarts() {
+        final PayloadStore store = new PayloadStore(dir);
+        final String hash = store.put(payload(1));
+        store.acquire(hash, PROJECTOR);
+        store.onSaved(OVERWORLD);
+
+        final PayloadStore restarted = new PayloadStore(dir);
+        restarted.acquire(hash, OTHER_PROJECTOR);
+        restarted.release(hash, OTHER_PROJECTOR);
+        restarted.onSaved(OVERWORLD);
+        restarted.deleteCollectable();
+        assertTrue(isStored(hash));
+
+        restarted.release(hash, PROJECTOR);
+        restarted.onSaved(OVERWORLD);
+        restarted.deleteCollectable();
+        assertFalse(isStored(hash));
+    }
+}
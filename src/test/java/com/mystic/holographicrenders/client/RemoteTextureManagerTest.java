@@ -0,0 +1,81 @@
+package com.mystic.holographicrenders.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RemoteTextureManagerTest {
+
+    private static void assertPixel(ByteBuffer buffer, int index, int r, int g, int b, int a) {
+        assertEquals(r, buffer.get(index * 4) & 0xFF, "red");
+        assertEquals(g, buffer.get(index * 4 + 1) & 0xFF, "green");
+        assertEquals(b, buffer.get(index * 4 + 2) & 0xFF, "blue");
+        assertEquals(a, buffer.get(index * 4 + 3) & 0xFF, "alpha");
+    }
+
+    @Test
+    void writesRgbaInMemoryOrderForBothByteOrders() {
+        final BufferedImage image = new BufferedImage(2, 2, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, 0xFF112233);
+        image.setRGB(1, 0, 0x80FF0000);
+        image.setRGB(0, 1, 0x0000FF00);
+        image.setRGB(1, 1, 0xFFFFFFFF);
+
+        for (ByteOrder order : new ByteOrder[]{ByteOrder.LITTLE_ENDIAN, ByteOrder.BIG_ENDIAN}) {
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(2 * 2 * 4).order(order);
+            RemoteTextureManager.writeRgba(image, buffer);
+
+            assertPixel(buffer, 0, 0x11, 0x22, 0x33, 0xFF);
+            assertPixel(buffer, 1, 0xFF, 0x00, 0x00, 0x80);
+            assertPixel(buffer, 2, 0x00, 0xFF, 0x00, 0x00);
+            assertPixel(buffer, 3, 0xFF, 0xFF, 0xFF, 0xFF);
+        }
+    }
+
+    @Test
+    void averagesTwoByTwoBlocks() {
+        final ByteBuffer source = ByteBuffer.allocateDirect(4 * 2 * 4);
+        final int[] values = {0, 100, 200, 40, 20, 60, 255, 255};
+        for (int pixel = 0; pixel < values.length; pixel++) {
+            for (int channel = 0; channel < 4; channel++) source.put(pixel * 4 + channel, (byte) values[pixel]);
+        }
+
+        final ByteBuffer target = ByteBuffer.allocateDirect(2 * 4);
+        RemoteTextureManager.downsample(source, 4, 2, target);
+
+        assertPixel(target, 0, 45, 45, 45, 45);
+        assertPixel(target, 1, 187, 187, 187, 187);
+    }
+
+    @Test
+    void downsamplesOddSizesDownToOnePixel() {
+        final ByteBuffer source = ByteBuffer.allocateDirect(3 * 4);
+        for (int i = 0; i < 3; i++) source.putInt(i * 4, 0x40404040);
+
+        final ByteBuffer half = ByteBuffer.allocateDirect(4);
+        RemoteTextureManager.downsample(source, 3, 1, half);
+        assertPixel(half, 0, 0x40, 0x40, 0x40, 0x40);
+    }
+
+    @Test
+    void capsTheLargerDimension() {
+        final BufferedImage image = new BufferedImage(300, 100, BufferedImage.TYPE_INT_ARGB);
+
+        final BufferedImage scaled = RemoteTextureManager.downscale(image, 128);
+        assertEquals(128, scaled.getWidth());
+        assertEquals(42, scaled.getHeight());
+
+        assertSame(image, RemoteTextureManager.downscale(image, 300));
+    }
+
+    @Test
+    void countsMipmapLevelsDownToOnePixel() {
+        assertEquals(1, RemoteTextureManager.getMipmapLevels(1, 1));
+        assertEquals(9, RemoteTextureManager.getMipmapLevels(256, 64));
+        assertEquals(10, RemoteTextureManager.getMipmapLevels(1000, 1000));
+    }
+}
@@ -0,0 +1,125 @@
+package com.mystic.holographicrenders.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextureDiskCacheTest {
+
+    private static final byte[] IMAGE = {(byte) 0x89, 'P', 'N', 'G', 1, 2, 3, 4};
+    private static final String ETAG = "\"v1\"";
+
+    @TempDir
+    Path cacheDir;
+
+    private HttpServer server;
+    private final List<String> conditionalRequests = Collections.synchronizedList(new ArrayList<>());
+    private volatile int forcedStatus = 0;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        final String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch != null) conditionalRequests.add(ifNoneMatch);
+
+        if (forcedStatus != 0) {
+            exchange.sendResponseHeaders(forcedStatus, -1);
+        } else if (exchange.getRequestURI().getPath().equals("/missing.png")) {
+            exchange.sendResponseHeaders(404, -1);
+        } else if (ETAG.equals(ifNoneMatch)) {
+            exchange.sendResponseHeaders(304, -1);
+        } else {
+            exchange.getResponseHeaders().add("Content-Type", "image/png");
+            exchange.getResponseHeaders().add("ETag", ETAG);
+            exchange.sendResponseHeaders(200, IMAGE.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(IMAGE);
+            }
+        }
+        exchange.close();
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    @Test
+    void revalidatesCachedImagesWithTheirEtag() throws IOException {
+        final TextureDiskCache cache = new TextureDiskCache(cacheDir);
+
+        final TextureDiskCache.CachedImage first = cache.fetch(url("/image.png"));
+        assertArrayEquals(IMAGE, first.data);
+        assertTrue(conditionalRequests.isEmpty());
+
+        final TextureDiskCache.CachedImage second = cache.fetch(url("/image.png"));
+        assertEquals(first.hash, second.hash);
+        assertArrayEquals(IMAGE, second.data);
+        assertEquals(1, conditionalRequests.size());
+        assertEquals(ETAG, conditionalRequests.get(0));
+    }
+
+    @Test
+    void keepsTheIndexAcrossInstances() throws IOException {
+        new TextureDiskCache(cacheDir).fetch(url("/image.png"));
+        new TextureDiskCache(cacheDir).fetch(url("/image.png"));
+
+        assertEquals(1, conditionalRequests.size());
+    }
+
+    @Test
+    void fallsBackToTheCachedCopyOnServerErrors() throws IOException {
+        final TextureDiskCache cache = new TextureDiskCache(cacheDir);
+        final TextureDiskCache.CachedImage cached = cache.fetch(url("/image.png"));
+
+        forcedStatus = 500;
+        assertEquals(cached.hash, cache.fetch(url("/image.png")).hash);
+
+        forcedStatus = 404;
+        assertArrayEquals(IMAGE, cache.fetch(url("/image.png")).data);
+    }
+
+    @Test
+    void failsOnErrorsWithoutCachedCopy() {
+        final TextureDiskCache cache = new TextureDiskCache(cacheDir);
+        assertThrows(IOException.class, () -> cache.fetch(url("/missing.png")));
+    }
+
+    @Test
+    void storesIdenticalImagesOnce() throws IOException {
+        final TextureDiskCache cache = new TextureDiskCache(cacheDir);
+
+        final String first = cache.fetch(url("/a.png")).hash;
+        final String second = cache.fetch(url("/b.png")).hash;
+        assertEquals(first, second);
+
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            assertEquals(1, files.filter(path -> path.toString().endsWith(".png")).count());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.mystic.holographicrenders.client;
+
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.client.util.math.Vector4f;
+import net.minecraft.util.math.Vec3f;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextureQuadRendererTest {
+
+    private static final int VERTEX_SIZE = 20;
+
+    private static ByteBuffer createBuffer() {
+        return ByteBuffer.allocateDirect(TextureQuadRenderer.VERTEX_COUNT * VERTEX_SIZE).order(ByteOrder.nativeOrder());
+    }
+
+    @Test
+    void matchesTheMatrixStackTransform() {
+        final ByteBuffer buffer = createBuffer();
+
+        for (float rotation = -3.1f; rotation < 3.2f; rotation += 0.35f) {
+            TextureQuadRenderer.writeVertices(buffer, rotation);
+
+            final MatrixStack matrices = new MatrixStack();
+            matrices.scale(0.1f, -0.1f, 0.1f);
+            matrices.translate(5, -20, 5);
+            matrices.multiply(Vec3f.POSITIVE_Y.getRadialQuaternion((float) (Math.PI / 2 - rotation)));
+            matrices.translate(-7.5, 0, 1);
+
+            for (int i = 0; i < TextureQuadRenderer.VERTEX_COUNT; i++) {
+                final Vector4f expected = new Vector4f(TextureQuadRenderer.QUAD_X[i], TextureQuadRenderer.QUAD_Y[i], 0, 1);
+                expected.transform(matrices.peek().getModel());
+
+                final int offset = i * VERTEX_SIZE;
+                final String vertex = "vertex " + i + " at rotation " + rotation;
+                assertEquals(expected.getX(), buffer.getFloat(offset), 1e-3, vertex);
+                assertEquals(expected.getY(), buffer.getFloat(offset + 4), 1e-3, vertex);
+                assertEquals(expected.getZ(), buffer.getFloat(offset + 8), 1e-3, vertex);
+                assertEquals(TextureQuadRenderer.QUAD_U[i], buffer.getFloat(offset + 12), vertex);
+                assertEquals(TextureQuadRenderer.QUAD_V[i], buffer.getFloat(offset + 16), vertex);
+            }
+        }
+        assertEquals(0, buffer.position(), "the buffer position is not changed");
+    }
+
+    @Test
+    void writesVerticesWithoutAllocating() {
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long thread = Thread.currentThread().getId();
+        final ByteBuffer buffer = createBuffer();
+
+        for (int frame = 0; frame < 10000; frame++) {
+            TextureQuadRenderer.writeVertices(buffer, frame * 0.01f);
+        }
+
+        final long before = threads.getThreadAllocatedBytes(thread);
+        for (int frame = 0; frame < 5000; frame++) {
+            TextureQuadRenderer.writeVertices(buffer, frame * 0.01f);
+        }
+        final long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        // Measuring itself may allocate a little, anything per frame would be at least 5000 times 16 bytes
+        assertTrue(allocated < 1024, allocated + " bytes allocated over 5000 frames");
+    }
+}
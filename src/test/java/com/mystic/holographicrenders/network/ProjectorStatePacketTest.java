@@ -0,0 +1,212 @@
+package com.mystic.holographicrenders.network;
+
+import com.mystic.holographicrenders.HolographicRenders;
+import com.mystic.holographicrenders.blocks.projector.ProjectorBlockEntity;
+import com.mystic.holographicrenders.client.RenderDataProvider;
+import io.netty.buffer.Unpooled;
+import net.minecraft.Bootstrap;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.entity.BlockEntityType;
+import net.minecraft.enchantment.Enchantments;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtHelper;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.nbt.NbtString;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.text.LiteralText;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.registry.Registry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectorStatePacketTest {
+
+    private static BlockEntityType<ProjectorBlockEntity> projectorType;
+
+    @BeforeAll
+    static void bootstrap() {
+        Bootstrap.initialize();
+
+        // The mod's own type lives in its initializer, which needs a running Fabric loader
+        projectorType = BlockEntityType.Builder.create(() -> new ProjectorBlockEntity(projectorType), Blocks.AIR).build(null);
+        Registry.register(Registry.BLOCK_ENTITY_TYPE, new Identifier(HolographicRenders.MOD_ID, "projector"), projectorType);
+    }
+
+    private static PacketByteBuf buffer() {
+        return new PacketByteBuf(Unpooled.buffer());
+    }
+
+    private static NbtCompound createEntityTag(int items) {
+        final NbtCompound tag = new NbtCompound();
+        tag.putString("id", "minecraft:villager");
+        tag.putFloat("Health", 20);
+
+        final NbtList inventory = new NbtList();
+        for (int i = 0; i < items; i++) {
+            final NbtCompound stack = new NbtCompound();
+            stack.putString("id", "minecraft:emerald");
+            stack.putByte("Count", (byte) 64);
+            inventory.add(stack);
+        }
+        tag.put("Inventory", inventory);
+        return tag;
+    }
+
+    @Test
+    void roundTripsSmallPayloadsUncompressed() {
+        final NbtCompound tag = createEntityTag(1);
+
+        final PacketByteBuf buf = buffer();
+        ProjectorStatePacket.writePayload(buf, tag);
+        assertEquals(0, buf.getByte(0), "small payloads are not deflated");
+
+        assertEquals(tag, ProjectorStatePacket.readPayload(buf));
+        assertEquals(0, buf.readableBytes());
+    }
+
+    @Test
+    void deflatesLargePayloads() {
+        final NbtCompound tag = createEntityTag(200);
+
+        final PacketByteBuf nbt = buffer();
+        nbt.writeNbt(tag);
+
+        final PacketByteBuf buf = buffer();
+        ProjectorStatePacket.writePayload(buf, tag);
+        assertTrue(buf.readableBytes() < nbt.readableBytes() / 4, "repetitive payloads deflate well");
+
+        assertEquals(tag, ProjectorStatePacket.readPayload(buf));
+        assertEquals(0, buf.readableBytes());
+    }
+
+    @Test
+    void readsConsecutivePayloads() {
+        final NbtCompound small = new NbtCompound();
+        small.put("Lore", new NbtList());
+        ((NbtList) small.get("Lore")).add(NbtString.of("hologram"));
+        final NbtCompound large = createEntityTag(100);
+
+        final PacketByteBuf buf = buffer();
+        ProjectorStatePacket.writePayload(buf, large);
+        ProjectorStatePacket.writePayload(buf, small);
+        buf.writeVarInt(42);
+
+        assertEquals(large, ProjectorStatePacket.readPayload(buf));
+        assertEquals(small, ProjectorStatePacket.readPayload(buf));
+        assertEquals(42, buf.readVarInt());
+    }
+
+    @Test
+    void rejectsOversizedPayloads() {
+        final PacketByteBuf buf = buffer();
+        buf.writeVarInt(Integer.MAX_VALUE);
+        buf.writeByteArray(new byte[16]);
+
+        assertThrows(IllegalStateException.class, () -> ProjectorStatePacket.readPayload(buf));
+    }
+
+    private static ProjectorBlockEntity createProjector(ItemStack stack, RenderDataProvider<?> provider) {
+        final ProjectorBlockEntity projector = new ProjectorBlockEntity(projectorType);
+        projector.setItem(stack);
+        projector.setRenderer(provider, false);
+        return projector;
+    }
+
+    private static int stateSize(ProjectorBlockEntity projector) {
+        final PacketByteBuf buf = buffer();
+        projector.writeState(buf);
+        return buf.readableBytes();
+    }
+
+    private static int nbtSize(ProjectorBlockEntity projector) {
+        return buffer().writeNbt(projector.toClientTag(new NbtCompound())).readableBytes();
+    }
+
+    private static void assertSmallerThanNbt(ProjectorBlockEntity projector) {
+        final int state = stateSize(projector);
+        final int nbt = nbtSize(projector);
+        assertTrue(state < nbt, "state is " + state + " bytes, NBT sync is " + nbt + " bytes");
+    }
+
+    private static ItemStack createNamedStack(String name) {
+        final ItemStack stack = new ItemStack(Items.PAPER);
+        stack.setCustomName(new LiteralText(name));
+        return stack;
+    }
+
+    @Test
+    void itemStateIsSmallerAndWritesTheStackOnce() {
+        final ItemStack stack = new ItemStack(Items.DIAMOND_SWORD);
+        stack.setCustomName(new LiteralText("Hologram"));
+        stack.addEnchantment(Enchantments.SHARPNESS, 5);
+        stack.addEnchantment(Enchantments.UNBREAKING, 3);
+
+        final ProjectorBlockEntity projector = createProjector(stack, RenderDataProvider.ItemProvider.from(stack.copy()));
+        assertSmallerThanNbt(projector);
+
+        // Alpha, flags, stack payload flag, provider id, stack data flag and area type come on top of the stack
+        final PacketByteBuf stackOnly = buffer();
+        ProjectorStatePacket.writePayload(stackOnly, stack.writeNbt(new NbtCompound()));
+        assertEquals(stackOnly.readableBytes() + 9, stateSize(projector), "the stack is not written again as render data");
+    }
+
+    @Test
+    void entityStateIsSmaller() {
+        final NbtCompound entityTag = createEntityTag(20);
+        final ItemStack stack = new ItemStack(Items.PAPER);
+        stack.getOrCreateTag().put("Entity", entityTag.copy());
+
+        assertSmallerThanNbt(createProjector(stack, RenderDataProvider.EntityProvider.of(entityTag)));
+    }
+
+    @Test
+    void textStateIsSmaller() {
+        assertSmallerThanNbt(createProjector(createNamedStack("Hologram"), RenderDataProvider.TextProvider.from(new LiteralText("Hologram"))));
+    }
+
+    @Test
+    void textureStateIsSmaller() {
+        final String url = "https://example.com/textures/hologram.png";
+        assertSmallerThanNbt(createProjector(createNamedStack(url), RenderDataProvider.TextureProvider.of(url)));
+    }
+
+    @Test
+    void areaStateIsSmaller() {
+        final BlockPos min = new BlockPos(0, 64, 0);
+        final BlockPos max = new BlockPos(15, 79, 15);
+
+        // A 16x16x16 area with a stone floor, one bit per block
+        final NbtCompound snapshotTag = new NbtCompound();
+        snapshotTag.putLong("Id", 42);
+        snapshotTag.putLong("Min", min.asLong());
+        snapshotTag.putLong("Max", max.asLong());
+        final NbtList palette = new NbtList();
+        palette.add(NbtHelper.fromBlockState(Blocks.AIR.getDefaultState()));
+        palette.add(NbtHelper.fromBlockState(Blocks.STONE.getDefaultState()));
+        snapshotTag.put("Palette", palette);
+        final long[] data = new long[64];
+        Arrays.fill(data, 0, 4, -1L);
+        snapshotTag.putLongArray("Data", data);
+
+        final ProjectorBlockEntity projector = new ProjectorBlockEntity(projectorType);
+        final NbtCompound tag = new NbtCompound();
+        tag.put("AreaSnapshot", snapshotTag);
+        projector.fromTag(null, tag);
+        assertNotNull(projector.getAreaSnapshot());
+
+        final ItemStack stack = new ItemStack(Items.PAPER);
+        stack.getOrCreateTag().putLong("Pos1", min.asLong());
+        stack.getOrCreateTag().putLong("Pos2", max.asLong());
+        projector.setItem(stack);
+        projector.setRenderer(RenderDataProvider.AreaProvider.from(min, max), false);
+
+        assertSmallerThanNbt(projector);
+    }
+}